@@ -0,0 +1,89 @@
+package study.querydsl.bench;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+//벤치마크 공통 : bench 프로파일 + 인메모리 H2 로 스프링 컨텍스트를 띄우고 resultSize 만큼 회원을 넣어둔다
+//(local 프로파일이 아니므로 initMember 초기 데이터는 없고, 데이터는 여기서 넣은 것뿐)
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({"10", "1000", "10000"})
+    public int resultSize;
+
+    public ConfigurableApplicationContext context;
+    public EntityManager em;
+    public JPAQueryFactory queryFactory;
+    public TransactionTemplate readOnlyTx;
+    public TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start();
+        em = context.getBean(EntityManager.class);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        tx.executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Team team = new Team("team" + i);
+                em.persist(team);
+                teams.add(team);
+            }
+            for (int i = 0; i < resultSize; i++) {
+                em.persist(new Member("member" + i, i % 100, teams.get(i % teams.size())));
+                if (i % 1000 == 999) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T readOnly(Function<JPAQueryFactory, T> query) {
+        return readOnlyTx.execute(status -> query.apply(queryFactory));
+    }
+
+    //커맨드라인 인자가 application.yml 보다 우선 -> active 프로파일을 bench 로 바꿔 local 전용 빈(initMember)을 빼고, 외부 H2 서버 없이 실행
+    //application-bench.yml 은 없으므로 나머지 설정은 application.yml 기본값 그대로 (replica 분리 꺼짐 -> DataSource 하나)
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.org.hibernate.SQL=warn"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
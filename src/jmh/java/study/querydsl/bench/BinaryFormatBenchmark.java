@@ -0,0 +1,83 @@
+package study.querydsl.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.codec.MemberBinaryCodec;
+import study.querydsl.codec.MemberBinaryReader;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.json.MemberJsonModule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//JSON vs 바이너리(MemberBinaryCodec) : 인코딩/디코딩 처리량 + 응답 크기
+//크기는 @Setup 에서 resultSize 별로 한 번 출력한다
+//./gradlew jmh -PjmhIncludes=BinaryFormatBenchmark -PjmhResultSize=100000
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int resultSize;
+
+    private List<MemberTeamDto> rows;
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        rows = new ArrayList<>(resultSize);
+        for (int i = 0; i < resultSize; i++) { //initMember 와 같은 분포 : 팀 몇 개에 회원이 많다
+            rows.add(new MemberTeamDto((long) i + 1, "member" + i, i % 100, (long) (i % 10) + 1, "team" + (i % 10)));
+        }
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new ParameterNamesModule()) //MemberTeamDto 는 기본 생성자가 없다 (스프링 부트 ObjectMapper 와 같은 설정)
+                .registerModule(new MemberJsonModule());
+        jsonWriter = objectMapper.writer();
+        jsonReader = objectMapper.readerFor(new TypeReference<List<MemberTeamDto>>() {});
+        json = jsonWriter.writeValueAsBytes(rows);
+        binary = encodeBinary();
+        System.out.printf("%nresultSize=%d json=%d bytes, binary=%d bytes (%.1f%%)%n",
+                resultSize, json.length, binary.length, 100.0 * binary.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonWriter.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 16);
+        MemberBinaryCodec.writeList(rows, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> decodeJson() throws IOException {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> decodeBinary() throws IOException {
+        return MemberBinaryReader.read(new ByteArrayInputStream(binary)).content();
+    }
+}
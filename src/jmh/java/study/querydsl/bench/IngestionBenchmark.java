@@ -0,0 +1,86 @@
+package study.querydsl.bench;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.BlockSequenceGenerator;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.concurrent.TimeUnit;
+
+//id 생성 방식별 적재 속도 (초당 insert 수)
+//  blockSize=50    : allocationSize 를 안 줬을 때 하이버네이트 기본값 (시퀀스 50건마다 호출)
+//  blockSize=1000  : 기존 @SequenceGenerator(allocationSize = 1000) 과 같은 블록
+//  blockSize=10000 : 큰 블록
+//  timeOrdered=true : 시간 순 id (시퀀스는 노드 번호 받을 때 한 번만)
+//./gradlew jmh -PjmhIncludes=IngestionBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class IngestionBenchmark {
+
+    private static final int BATCH = 1000; //initMember 와 같은 단위로 flush/clear
+
+    @Param({"50", "1000", "10000"})
+    public int blockSize;
+
+    @Param({"false", "true"})
+    public boolean timeOrdered;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager em;
+    private TransactionTemplate tx;
+    private Long teamId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--spring.jpa.properties." + BlockSequenceGenerator.BLOCK_SIZE + "=" + blockSize,
+                "--spring.jpa.properties." + BlockSequenceGenerator.TIME_ORDERED + "=" + timeOrdered);
+        em = context.getBean(EntityManager.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        teamId = tx.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            return team.getId();
+        });
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() { //인메모리 DB 가 계속 커지지 않게
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertMembers() {
+        tx.executeWithoutResult(status -> {
+            Team team = em.getReference(Team.class, teamId);
+            for (int i = 0; i < BATCH; i++) {
+                Member member = new Member("member" + i, i % 100);
+                member.setTeam(team);
+                em.persist(member);
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+}
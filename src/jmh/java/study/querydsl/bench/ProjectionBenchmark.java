@@ -0,0 +1,92 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.types.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+//QuerydslBasicTest 의 DTO 조회 방식별 비용 비교 (처리량 + gc 프로파일러로 연산당 할당량)
+//./gradlew jmh -PjmhIncludes=ProjectionBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProjectionBenchmark {
+
+    //MemberDto
+    @Benchmark
+    public List<MemberDto> memberDtoBySetter(BenchmarkContext ctx) { //Projections.bean
+        return ctx.readOnly(queryFactory -> queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> memberDtoByField(BenchmarkContext ctx) { //Projections.fields
+        return ctx.readOnly(queryFactory -> queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> memberDtoByConstructor(BenchmarkContext ctx) { //Projections.constructor
+        return ctx.readOnly(queryFactory -> queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> memberDtoByQueryProjection(BenchmarkContext ctx) { //@QueryProjection
+        return ctx.readOnly(queryFactory -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> memberDtoByJpqlNew(BenchmarkContext ctx) { //JPQL new 명령어
+        return ctx.readOnly(queryFactory -> ctx.em
+                .createQuery("select new study.querydsl.dto.MemberDto(m.username, m.age) from Member m", MemberDto.class)
+                .getResultList());
+    }
+
+    //MemberTeamDto (기본 생성자가 없어서 bean/fields 방식은 불가)
+    @Benchmark
+    public List<MemberTeamDto> memberTeamDtoByConstructor(BenchmarkContext ctx) {
+        return ctx.readOnly(queryFactory -> queryFactory
+                .select(Projections.constructor(MemberTeamDto.class,
+                        member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> memberTeamDtoByQueryProjection(BenchmarkContext ctx) {
+        return ctx.readOnly(queryFactory -> queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> memberTeamDtoByJpqlNew(BenchmarkContext ctx) {
+        return ctx.readOnly(queryFactory -> ctx.em
+                .createQuery("select new study.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)" +
+                        " from Member m left join m.team t", MemberTeamDto.class)
+                .getResultList());
+    }
+}
@@ -0,0 +1,50 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//findMember : 관리 엔티티(스냅샷 O) vs 읽기 전용 엔티티(스냅샷 X) vs DTO(엔티티 X)
+//gc.alloc.rate.norm (연산당 할당 바이트) 차이가 100k row 당 절약되는 힙
+//./gradlew jmh -PjmhIncludes=ReadPathBenchmark -PjmhResultSize=100000
+//주의 : 스프링 readOnly 트랜잭션은 세션 자체를 읽기 전용으로 만들기 때문에 비교를 위해 일반 트랜잭션에서 실행
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadPathBenchmark {
+
+    private static final MemberSearchCondition ALL = new MemberSearchCondition();
+
+    @Benchmark
+    public List<Member> findMember(BenchmarkContext ctx) {
+        MemberJpaRepository repository = ctx.context.getBean(MemberJpaRepository.class);
+        return ctx.tx.execute(status -> {
+            List<Member> result = repository.findMember(ALL);
+            ctx.em.flush(); //변경감지(스냅샷 비교) 비용까지 포함
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<Member> findMemberReadOnly(BenchmarkContext ctx) {
+        MemberJpaRepository repository = ctx.context.getBean(MemberJpaRepository.class);
+        return ctx.tx.execute(status -> {
+            List<Member> result = repository.findMemberReadOnly(ALL);
+            ctx.em.flush();
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<MemberDto> findMemberDto(BenchmarkContext ctx) {
+        MemberJpaRepository repository = ctx.context.getBean(MemberJpaRepository.class);
+        return ctx.tx.execute(status -> repository.findMemberDto(ALL));
+    }
+}
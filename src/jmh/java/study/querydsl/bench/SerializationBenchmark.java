@@ -0,0 +1,91 @@
+package study.querydsl.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.json.MemberJsonModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//검색 응답 JSON 직렬화 : 기본 BeanSerializer vs MemberJsonModule (DB 없이 직렬화만 측정)
+//./gradlew jmh -PjmhIncludes=SerializationBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int resultSize;
+
+    private List<MemberTeamDto> rows;
+    private Page<MemberTeamDto> page;
+    private ObjectWriter defaultWriter;
+    private ObjectWriter specializedWriter;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(resultSize);
+        for (int i = 0; i < resultSize; i++) {
+            rows.add(new MemberTeamDto((long) i, "member" + i, i % 100, (long) (i % 10), "team" + (i % 10)));
+        }
+        page = new PageImpl<>(rows, PageRequest.of(0, resultSize), resultSize * 10L);
+        defaultWriter = new ObjectMapper().writer();
+        specializedWriter = new ObjectMapper().registerModule(new MemberJsonModule()).writer();
+    }
+
+    @Benchmark
+    public long listDefault() throws IOException {
+        return write(defaultWriter, rows);
+    }
+
+    @Benchmark
+    public long listSpecialized() throws IOException {
+        return write(specializedWriter, rows);
+    }
+
+    @Benchmark
+    public long pageDefault() throws IOException { //PageImpl 기본 모양 (pageable, sort ... 포함)
+        return write(defaultWriter, page);
+    }
+
+    @Benchmark
+    public long pageSpecialized() throws IOException { //compact 모양
+        return write(specializedWriter, page);
+    }
+
+    //응답 스트림 대신 바이트 수만 세는 스트림에 쓴다 (byte[] 할당이 측정에 섞이지 않게)
+    private static long write(ObjectWriter writer, Object value) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, value);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
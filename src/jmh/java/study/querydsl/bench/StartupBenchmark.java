@@ -0,0 +1,117 @@
+package study.querydsl.bench;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//기동 시간 비교 : 프로세스 시작 ~ 첫 /v2/members 응답(200)까지
+//  fat-jar   : java -jar build/libs/*.jar
+//  extracted : java -jar build/cds/*.jar (CDS 없이) -> 추출 자체의 효과(중첩 jar 로딩 없음)
+//  cds       : java -XX:SharedArchiveFile=application.jsa [-Dspring.aot.enabled=true] -jar build/cds/*.jar
+//CDS/AOT 의 효과는 같은 추출 jar 끼리(extracted vs cds) 비교해야 한다
+//JMH 가 아니라 프로세스를 직접 띄워서 재는 main (JVM 기동 자체가 측정 대상이라 포크 안에서 잴 수 없다)
+//./gradlew startupBenchmark -Paot -PstartupRuns=10
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    //args : java 실행 파일, bootJar, CDS 용으로 추출한 jar, jsa 파일, aot 여부, 반복 횟수, 앱 인자...
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        String bootJar = args[1];
+        String extractedJar = args[2];
+        String archive = args[3];
+        boolean aot = Boolean.parseBoolean(args[4]);
+        int runs = Integer.parseInt(args[5]);
+        List<String> appArgs = List.of(args).subList(6, args.length);
+
+        List<String> optimizedOptions = new ArrayList<>(List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off"));
+        if (aot) {
+            optimizedOptions.add("-Dspring.aot.enabled=true");
+        }
+
+        List<Long> fatJar = new ArrayList<>();
+        List<Long> extracted = new ArrayList<>();
+        List<Long> optimized = new ArrayList<>();
+        for (int i = 0; i < runs; i++) { //번갈아 실행해서 디스크 캐시 등 순서 영향을 줄인다
+            fatJar.add(timeToFirstResponse(java, List.of(), bootJar, appArgs));
+            extracted.add(timeToFirstResponse(java, List.of(), extractedJar, appArgs));
+            optimized.add(timeToFirstResponse(java, optimizedOptions, extractedJar, appArgs));
+        }
+
+        String optimizedMode = aot ? "aot+cds" : "cds";
+        report("fat-jar", fatJar);
+        report("extracted", extracted);
+        report(optimizedMode, optimized);
+        System.out.printf("median speedup: extracted vs fat-jar %.2fx, %s vs extracted %.2fx, %s vs fat-jar %.2fx%n",
+                (double) median(fatJar) / median(extracted),
+                optimizedMode, (double) median(extracted) / median(optimized),
+                optimizedMode, (double) median(fatJar) / median(optimized));
+    }
+
+    private static long timeToFirstResponse(String java, List<String> jvmOptions, String jar, List<String> appArgs)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v2/members?size=1")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("기동 실패 (exit " + process.exitValue() + "): " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notYetListening) {
+                    //아직 포트가 안 열림
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("시간 초과: " + command);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void report(String mode, List<Long> millis) {
+        List<Long> sorted = new ArrayList<>(millis);
+        Collections.sort(sorted);
+        System.out.printf("%-9s time-to-first /v2/members: min %d ms, median %d ms, max %d ms %s%n",
+                mode, sorted.get(0), median(millis), sorted.get(sorted.size() - 1), millis);
+    }
+
+    private static long median(List<Long> millis) {
+        List<Long> sorted = new ArrayList<>(millis);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
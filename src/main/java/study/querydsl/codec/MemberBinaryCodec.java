@@ -0,0 +1,119 @@
+package study.querydsl.codec;
+
+import org.springframework.data.domain.Page;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//서비스 간 호출용 MemberTeamDto 바이너리 포맷 (Accept: application/x-member-team-binary)
+//
+//헤더 : magic(int "MTD1") | kind(byte 0=목록, 1=페이지) | [페이지면 number varint, size varint, totalElements varlong] | rowCount varint
+//행   : memberId(직전 행과의 차이, zigzag varlong) | username(string) | age(zigzag varint) | teamRef(varint)
+//       teamRef 0 = 팀 없음, 1..n = 이미 나온 팀, n+1 = 새 팀 -> 바로 뒤에 teamId(zigzag varlong), teamName(string)
+//string : (UTF-8 바이트 길이 + 1) varint + 바이트, 0 이면 null
+//
+//팀은 몇 개 안 되고 회원은 많으므로 팀명은 처음 나올 때 한 번만 쓰고 이후로는 번호만 쓴다 (사전 인코딩)
+//읽는 쪽은 MemberBinaryReader
+public final class MemberBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-member-team-binary";
+
+    static final int MAGIC = 0x4D544431; //"MTD1"
+    static final byte KIND_LIST = 0;
+    static final byte KIND_PAGE = 1;
+
+    private MemberBinaryCodec() {
+    }
+
+    public static void writeList(List<MemberTeamDto> rows, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 8192));
+        data.writeInt(MAGIC);
+        data.writeByte(KIND_LIST);
+        writeRows(rows, data);
+        data.flush();
+    }
+
+    public static void writePage(Page<MemberTeamDto> page, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 8192));
+        data.writeInt(MAGIC);
+        data.writeByte(KIND_PAGE);
+        writeVarInt(data, page.getNumber());
+        writeVarInt(data, page.getSize());
+        writeVarLong(data, page.getTotalElements());
+        writeRows(page.getContent(), data);
+        data.flush();
+    }
+
+    private static void writeRows(List<MemberTeamDto> rows, DataOutputStream data) throws IOException {
+        writeVarInt(data, rows.size());
+        Map<Long, Integer> teams = new HashMap<>(); //teamId -> 사전 번호(1부터)
+        long previousId = 0;
+        for (MemberTeamDto row : rows) {
+            if (row.getMemberId() == null) {
+                throw new IllegalArgumentException("memberId 가 없는 행은 인코딩할 수 없습니다.");
+            }
+            long memberId = row.getMemberId();
+            writeVarLong(data, zigzag(memberId - previousId)); //보통 id 순이라 차이가 작다
+            previousId = memberId;
+            writeString(data, row.getUsername());
+            writeVarInt(data, zigzag(row.getAge()));
+
+            Long teamId = row.getTeamId();
+            if (teamId == null) {
+                writeVarInt(data, 0);
+                continue;
+            }
+            Integer ref = teams.get(teamId);
+            if (ref != null) {
+                writeVarInt(data, ref);
+            } else {
+                ref = teams.size() + 1;
+                teams.put(teamId, ref);
+                writeVarInt(data, ref);
+                writeVarLong(data, zigzag(teamId));
+                writeString(data, row.getTeamName());
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(data, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(data, bytes.length + 1);
+        data.write(bytes);
+    }
+
+    static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte((int) value);
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
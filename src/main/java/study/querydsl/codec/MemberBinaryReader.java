@@ -0,0 +1,129 @@
+package study.querydsl.codec;
+
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+//MemberBinaryCodec 포맷을 읽는 클라이언트용 리더 (스프링 의존 없음)
+//예: MemberBinaryReader.Result result = MemberBinaryReader.read(connection.getInputStream());
+public final class MemberBinaryReader {
+
+    private static final int MAX_STRING_BYTES = 1 << 20; //깨진 길이값으로 큰 배열을 만들지 않게
+
+    private MemberBinaryReader() {
+    }
+
+    //paged 가 false 면 number/size/totalElements 는 의미 없음 (/v1/members 목록 응답)
+    public record Result(List<MemberTeamDto> content, boolean paged, int number, int size, long totalElements) {
+    }
+
+    public static Result read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 8192));
+        if (data.readInt() != MemberBinaryCodec.MAGIC) {
+            throw new IOException("MemberBinaryCodec 포맷이 아닙니다.");
+        }
+        byte kind = data.readByte();
+        if (kind == MemberBinaryCodec.KIND_LIST) {
+            return new Result(readRows(data), false, 0, 0, 0);
+        }
+        if (kind == MemberBinaryCodec.KIND_PAGE) {
+            int number = readCount(data, "page number");
+            int size = readCount(data, "page size");
+            long totalElements = readVarLong(data);
+            if (totalElements < 0) {
+                throw new IOException("totalElements 가 음수 : " + totalElements);
+            }
+            return new Result(readRows(data), true, number, size, totalElements);
+        }
+        throw new IOException("알 수 없는 kind : " + kind);
+    }
+
+    private static List<MemberTeamDto> readRows(DataInputStream data) throws IOException {
+        int rowCount = readCount(data, "행 수");
+        List<MemberTeamDto> rows = new ArrayList<>(Math.min(rowCount, 1 << 16));
+        List<Long> teamIds = new ArrayList<>();
+        List<String> teamNames = new ArrayList<>();
+        long memberId = 0;
+        for (int i = 0; i < rowCount; i++) {
+            memberId += unzigzag(readVarLong(data));
+            String username = readString(data);
+            int age = unzigzag(readVarInt(data));
+
+            int teamRef = readCount(data, "팀 번호");
+            Long teamId = null;
+            String teamName = null;
+            if (teamRef == teamIds.size() + 1) { //새 팀
+                teamIds.add(unzigzag(readVarLong(data)));
+                teamNames.add(readString(data));
+            } else if (teamRef > teamIds.size() + 1) {
+                throw new IOException("잘못된 팀 번호 : " + teamRef);
+            }
+            if (teamRef > 0) {
+                teamId = teamIds.get(teamRef - 1);
+                teamName = teamNames.get(teamRef - 1);
+            }
+            rows.add(new MemberTeamDto(memberId, username, age, teamId, teamName));
+        }
+        return rows;
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = readCount(data, "문자열 길이");
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > MAX_STRING_BYTES) {
+            throw new IOException("문자열 길이 초과 : " + (length - 1));
+        }
+        byte[] bytes = new byte[length - 1];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //개수/길이처럼 음수일 수 없는 값 : 5바이트 varint 는 상위 비트가 켜지면 음수가 되므로 깨진 입력으로 본다
+    private static int readCount(DataInputStream data, String field) throws IOException {
+        int value = readVarInt(data);
+        if (value < 0) {
+            throw new IOException(field + " 가 음수 : " + value);
+        }
+        return value;
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint 가 너무 깁니다.");
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varlong 이 너무 깁니다.");
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
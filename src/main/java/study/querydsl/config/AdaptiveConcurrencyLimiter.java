@@ -0,0 +1,119 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+
+//AIMD 방식 동시 처리 수 제한
+//- 최근 지연시간(최근 10건의 중앙값)이 기준 지연시간 * tolerance 이내면 limit += 1/limit (천천히 늘림)
+//- 넘으면 limit *= backoff (빠르게 줄임, 최근 값이 다 바뀔 때까지 10건에 한 번만), 실패하면 바로 줄임
+//- 처리 중인 요청 수가 limit 이상이면 바로 거절 -> 톰캣 스레드/커넥션 풀에 줄 서지 않게 한다
+//기준 지연시간 = 최근 100번의 중앙값 중 최솟값
+//  한 건만 빠른 요청(작은 페이지, 빈 결과)은 중앙값에 묻혀서 기준을 끌어내리지 못하고
+//  빠른 구간이 있었더라도 창에서 밀려나면 기준이 다시 올라온다 -> 크기가 섞인 평소 부하를 느리다고 보지 않는다
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int RECENT_WINDOW = 10; //최근 지연시간 표본 수
+    private static final int BASELINE_WINDOW = 100; //기준값을 고르는 최근 중앙값 수
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+
+    private double limit;
+    private int inFlight;
+    private final long[] recent = new long[RECENT_WINDOW]; //링 버퍼
+    private int recentNext;
+    private int recentCount;
+    private final double[] medians = new double[BASELINE_WINDOW]; //링 버퍼
+    private int medianNext;
+    private int medianCount;
+    private int samplesSinceDecrease = RECENT_WINDOW;
+
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoff, MeterRegistry registry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+
+        Gauge.builder("app.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit).tag("endpoint", name).register(registry);
+        Gauge.builder("app.concurrency.inflight", this, AdaptiveConcurrencyLimiter::getInFlight).tag("endpoint", name).register(registry);
+        this.rejected = Counter.builder("app.concurrency.rejected").tag("endpoint", name).register(registry);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    //지연시간 표본 없이 반납 (limit 조절에 쓰면 안 되는 응답)
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    public synchronized void release(long latencyNanos, boolean success) {
+        inFlight--;
+        samplesSinceDecrease = Math.min(samplesSinceDecrease + 1, RECENT_WINDOW);
+
+        if (!success) {
+            decrease();
+            return;
+        }
+        recent[recentNext] = latencyNanos;
+        recentNext = (recentNext + 1) % RECENT_WINDOW;
+        recentCount = Math.min(recentCount + 1, RECENT_WINDOW);
+        if (recentCount < RECENT_WINDOW) { //표본이 모일 때까지는 비교할 기준이 없으므로 limit 은 그대로
+            return;
+        }
+        double median = median();
+        medians[medianNext] = median;
+        medianNext = (medianNext + 1) % BASELINE_WINDOW;
+        medianCount = Math.min(medianCount + 1, BASELINE_WINDOW);
+
+        if (median > baseline() * tolerance) {
+            if (samplesSinceDecrease >= RECENT_WINDOW) {
+                decrease();
+            }
+        } else if (inFlight + 1 >= (int) limit) { //limit 까지 찼을 때만 늘린다 (여유 있을 때 무의미하게 커지지 않게)
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoff);
+        samplesSinceDecrease = 0;
+    }
+
+    private double median() {
+        long[] sorted = recent.clone();
+        Arrays.sort(sorted);
+        return sorted[RECENT_WINDOW / 2];
+    }
+
+    private double baseline() {
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < medianCount; i++) {
+            min = Math.min(min, medians[i]);
+        }
+        return min;
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,85 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//@ConcurrencyLimited 엔드포인트 입장 제어 : 한도를 넘으면 503 + Retry-After 로 바로 돌려보낸다
+//메트릭 : app.concurrency.limit / app.concurrency.inflight / app.concurrency.rejected (endpoint 태그)
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitInterceptor(MeterRegistry registry,
+                                       @Value("${app.concurrency-limit.initial:20}") int initialLimit,
+                                       @Value("${app.concurrency-limit.min:2}") int minLimit,
+                                       @Value("${app.concurrency-limit.max:200}") int maxLimit,
+                                       @Value("${app.concurrency-limit.tolerance:2.0}") double tolerance,
+                                       @Value("${app.concurrency-limit.backoff:0.9}") double backoff,
+                                       @Value("${app.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.registry = registry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConcurrencyLimited annotation = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        if (annotation == null) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(annotation.value(),
+                name -> new AdaptiveConcurrencyLimiter(name, initialLimit, minLimit, maxLimit, tolerance, backoff, registry));
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return false;
+        }
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER);
+        if (limiter == null) {
+            return;
+        }
+        request.removeAttribute(LIMITER);
+        if (response.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            limiter.release(); //304 는 검색 쿼리를 실행하지 않으므로 지연시간 기준값에 넣지 않는다
+            return;
+        }
+        long latency = System.nanoTime() - (Long) request.getAttribute(START);
+        limiter.release(latency, ex == null && response.getStatus() < 500);
+    }
+}
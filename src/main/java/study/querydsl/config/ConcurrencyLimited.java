@@ -0,0 +1,14 @@
+package study.querydsl.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//엔드포인트 동시 처리 수 제한 (AdaptiveConcurrencyLimiter), 이름별로 리미터가 따로 생긴다
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    String value();
+}
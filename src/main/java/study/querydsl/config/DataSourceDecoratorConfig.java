@@ -0,0 +1,30 @@
+package study.querydsl.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import study.querydsl.metrics.SlowQueryLog;
+
+import javax.sql.DataSource;
+
+//애플리케이션이 쓰는 DataSource(빈 이름 dataSource, 읽기/쓰기 분리 시 routingDataSource) 를 JDBC 레벨 기능으로 감싼다
+@Configuration
+public class DataSourceDecoratorConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceDecorator(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && ("dataSource".equals(beanName) || "routingDataSource".equals(beanName))) {
+                    //안쪽부터 : 느린 쿼리 기록 -> 요청 데드라인(queryTimeout)
+                    return new DeadlineDataSource(new SlowQueryDataSource(dataSource, slowQueryLog));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package study.querydsl.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+//커넥션에서 Statement 를 만들 때마다 요청 데드라인까지 남은 시간을 queryTimeout 으로 설정
+//시간이 지나면 드라이버가 DB 에 cancel 을 보내고 SQLTimeoutException -> 스프링 QueryTimeoutException 으로 변환된다
+//작업 스레드에 StatementCancelHandle 이 있으면 Statement 를 등록해 다른 스레드에서 취소할 수 있게 한다
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object identity = JdbcProxies.identity(proxy, method, args);
+                    if (identity != JdbcProxies.NOT_HANDLED) {
+                        return identity;
+                    }
+                    String name = method.getName();
+                    if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+                        int timeout = QueryDeadlineHolder.remainingSeconds(); //이미 지났으면 SQL 을 보내지도 않는다
+                        Statement statement = (Statement) JdbcProxies.invoke(connection, method, args);
+                        if (timeout > 0) {
+                            statement.setQueryTimeout(timeout);
+                        }
+                        StatementCancelHandle.register(statement);
+                        return statement;
+                    }
+                    return JdbcProxies.invoke(connection, method, args);
+                });
+    }
+}
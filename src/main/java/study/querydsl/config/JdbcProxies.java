@@ -0,0 +1,38 @@
+package study.querydsl.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+//DeadlineDataSource / SlowQueryDataSource 의 Connection, Statement 동적 프록시 공통 처리
+//equals/hashCode 는 프록시 자신 기준 (그대로 넘기면 proxy.equals(proxy) 가 false 가 되어 풀/컬렉션에서 못 찾는다)
+//unwrap/isWrapperFor 는 프록시가 구현한 타입이면 프록시를 돌려준다 (원본을 돌려주면 감싼 기능을 우회한다)
+final class JdbcProxies {
+
+    static final Object NOT_HANDLED = new Object();
+
+    private JdbcProxies() {
+    }
+
+    static Object identity(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "unwrap":
+                return ((Class<?>) args[0]).isInstance(proxy) ? proxy : NOT_HANDLED;
+            case "isWrapperFor":
+                return ((Class<?>) args[0]).isInstance(proxy) ? Boolean.TRUE : NOT_HANDLED;
+            default:
+                return NOT_HANDLED;
+        }
+    }
+
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.config;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import study.querydsl.codec.MemberBinaryCodec;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+//Accept: application/x-member-team-binary 인 요청에만 List<MemberTeamDto>, Page<MemberTeamDto> 를 바이너리로 응답
+//그 외 Accept 는 기존대로 Jackson(JSON) 이 처리한다
+public class MemberBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MemberBinaryCodec.MEDIA_TYPE_VALUE);
+
+    public MemberBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) || Page.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        //mediaType == null : 협상 전에 응답 가능한 타입을 모으는 단계
+        //Accept: */* 이면 먼저 등록된 Jackson 이 선택되므로 바이너리는 명시적으로 요청한 경우에만 나간다
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type != null ? type : clazz);
+        return supports(resolved.toClass())
+                && resolved.getGeneric(0).toClass() == MemberTeamDto.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false; //응답 전용 (클라이언트는 MemberBinaryReader)
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (value instanceof Page<?> page) {
+            MemberBinaryCodec.writePage((Page<MemberTeamDto>) page, outputMessage.getBody());
+        } else {
+            MemberBinaryCodec.writeList((List<MemberTeamDto>) value, outputMessage.getBody());
+        }
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("읽기는 지원하지 않습니다.", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("읽기는 지원하지 않습니다.", inputMessage);
+    }
+}
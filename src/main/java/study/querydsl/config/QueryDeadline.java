@@ -0,0 +1,14 @@
+package study.querydsl.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//엔드포인트별 쿼리 데드라인 (요청 헤더 X-Query-Deadline-Ms 가 더 짧으면 헤더 값 사용)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryDeadline {
+
+    long millis();
+}
@@ -0,0 +1,47 @@
+package study.querydsl.config;
+
+import java.sql.SQLTimeoutException;
+
+//현재 요청의 쿼리 데드라인 (스레드 로컬)
+//DeadlineDataSource 가 SQL 실행 전마다 남은 시간을 JDBC queryTimeout 으로 건다
+public final class QueryDeadlineHolder {
+
+    private static final ThreadLocal<Long> deadlineNanos = new ThreadLocal<>();
+
+    private QueryDeadlineHolder() {
+    }
+
+    public static void set(long timeoutMillis) {
+        deadlineNanos.set(System.nanoTime() + timeoutMillis * 1_000_000);
+    }
+
+    public static Long get() {
+        return deadlineNanos.get();
+    }
+
+    //다른 스레드로 작업을 넘길 때 같은 데드라인 유지용
+    public static void restore(Long deadline) {
+        if (deadline == null) {
+            deadlineNanos.remove();
+        } else {
+            deadlineNanos.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        deadlineNanos.remove();
+    }
+
+    //남은 시간을 초 단위로 (JDBC queryTimeout 은 초 단위, 올림), 데드라인이 없으면 0(무제한)
+    public static int remainingSeconds() throws SQLTimeoutException {
+        Long deadline = deadlineNanos.get();
+        if (deadline == null) {
+            return 0;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("요청 쿼리 데드라인 초과");
+        }
+        return (int) Math.max(1, (remaining + 999_999_999) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,55 @@
+package study.querydsl.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+//요청마다 쿼리 데드라인 결정 : min(헤더 X-Query-Deadline-Ms, @QueryDeadline 또는 기본값)
+//데드라인은 요청 스레드 기준 (스트리밍 응답처럼 다른 스레드에서 도는 작업에는 적용되지 않음)
+@Component
+public class QueryDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String HEADER = "X-Query-Deadline-Ms";
+
+    private final long defaultMillis;
+
+    public QueryDeadlineInterceptor(@Value("${app.query-deadline.default:10s}") Duration defaultDeadline) {
+        this.defaultMillis = defaultDeadline.toMillis();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long millis = defaultMillis;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            QueryDeadline annotation = handlerMethod.getMethodAnnotation(QueryDeadline.class);
+            if (annotation != null) {
+                millis = annotation.millis();
+            }
+        }
+        String header = request.getHeader(HEADER);
+        if (header != null) {
+            try {
+                millis = Math.min(millis, Math.max(1, Long.parseLong(header.trim())));
+            } catch (NumberFormatException ignored) { //잘못된 헤더는 무시
+            }
+        }
+        QueryDeadlineHolder.set(millis);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryDeadlineHolder.clear();
+    }
+
+    //비동기 응답(스트리밍)은 afterCompletion 대신 이쪽이 호출된다 -> 요청 스레드에 값이 남지 않게
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryDeadlineHolder.clear();
+    }
+}
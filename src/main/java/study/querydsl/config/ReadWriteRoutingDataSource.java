@@ -0,0 +1,175 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+//@Transactional(readOnly = true) 는 replica, 나머지는 primary 로 보낸다
+//LazyConnectionDataSourceProxy 로 감싸서 써야 트랜잭션의 readOnly 설정이 끝난 뒤(실제 SQL 직전)에 라우팅된다
+//replica 는 primary 보다 늦게 반영될 수 있으므로 쓰기를 커밋한 스레드는 maxLag 동안 읽기도 primary 로 보낸다 (read-your-writes)
+//스레드 단위라 다른 스레드(다른 요청)의 쓰기 때문에 replica 를 못 쓰게 되지는 않는다
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    //이 DataSource 가 내준 커넥션 : 실제로 연결된 DataSource 를 알 수 있다 (connection.unwrap(RoutedConnection.class))
+    public interface RoutedConnection extends Connection {
+        DataSource routedDataSource();
+    }
+
+    private static final ThreadLocal<Route> lastRoute = new ThreadLocal<>(); //이 스레드에서 마지막으로 커넥션을 얻은 쪽
+    private final ThreadLocal<Long> lastWriteCommittedAt = new ThreadLocal<>(); //이 스레드가 마지막으로 쓰기를 커밋한 시각
+
+    private final long maxLagNanos;
+
+    private final Counter primaryCount;
+    private final Counter replicaCount;
+    private final Counter lagFallbackCount;
+
+    public ReadWriteRoutingDataSource(Duration maxLag, MeterRegistry registry) {
+        this.maxLagNanos = maxLag.toNanos();
+        this.primaryCount = Counter.builder("app.datasource.route").tag("route", "primary").register(registry);
+        this.replicaCount = Counter.builder("app.datasource.route").tag("route", "replica").register(registry);
+        this.lagFallbackCount = Counter.builder("app.datasource.route").tag("route", "replica-lag-fallback").register(registry);
+    }
+
+    //라우팅 카운트는 실제로 커넥션을 얻을 때만 센다 (unwrap/isWrapperFor 도 lookup 을 하므로 lookup 에서 세면 부풀려진다)
+    @Override
+    public Connection getConnection() throws SQLException {
+        Route route = acquire();
+        return track(route, target(route).getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Route route = acquire();
+        return track(route, target(route).getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    //이 스레드가 마지막으로 커넥션을 얻은 실제 DataSource (확인용 - 문장 단위로는 RoutedConnection 을 쓴다)
+    public DataSource lastRoutedDataSource() {
+        Route route = lastRoute.get();
+        return target(route == null ? Route.PRIMARY : route);
+    }
+
+    private Route acquire() {
+        Route route = route();
+        lastRoute.set(route);
+        if (route == Route.REPLICA) {
+            replicaCount.increment();
+        } else if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            lagFallbackCount.increment();
+        } else {
+            primaryCount.increment();
+        }
+        return route;
+    }
+
+    private Route route() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !recentlyWritten()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    private DataSource target(Route route) {
+        DataSource target = getResolvedDataSources().get(route);
+        return target != null ? target : getResolvedDefaultDataSource();
+    }
+
+    private boolean recentlyWritten() {
+        Long last = lastWriteCommittedAt.get();
+        if (last == null) {
+            return false;
+        }
+        if (System.nanoTime() - last < maxLagNanos) {
+            return true;
+        }
+        lastWriteCommittedAt.remove(); //지났으면 풀 스레드에 남기지 않는다
+        return false;
+    }
+
+    //커넥션마다 어느 DataSource 로 갔는지 달아 둔다 (SlowQueryDataSource 가 EXPLAIN 을 같은 DB 로 보낼 때 사용)
+    //primary 커넥션에서 실제로 쓰기(update/batch)를 실행한 경우에만 커밋 시각을 기록한다
+    //readOnly 가 아닐 뿐 조회만 한 트랜잭션은 replica 를 막지 않는다
+    private Connection track(Route route, Connection connection) {
+        DataSource routed = target(route);
+        boolean[] written = {false}; //커넥션(= 트랜잭션) 당 한 번만 등록
+        Runnable onWrite = () -> {
+            if (route == Route.PRIMARY && !written[0]) {
+                written[0] = true;
+                writeExecuted();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(ReadWriteRoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{RoutedConnection.class},
+                (proxy, method, args) -> {
+                    Object identity = JdbcProxies.identity(proxy, method, args);
+                    if (identity != JdbcProxies.NOT_HANDLED) {
+                        return identity;
+                    }
+                    if (method.getName().equals("routedDataSource")) {
+                        return routed;
+                    }
+                    Object result = JdbcProxies.invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        return trackStatement(method.getReturnType(), statement, (Connection) proxy, onWrite);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object trackStatement(Class<?> type, Statement statement, Connection connection, Runnable onWrite) {
+        return Proxy.newProxyInstance(ReadWriteRoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Object identity = JdbcProxies.identity(proxy, method, args);
+                    if (identity != JdbcProxies.NOT_HANDLED) {
+                        return identity;
+                    }
+                    if (method.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    Object result = JdbcProxies.invoke(statement, method, args);
+                    if (isWrite(method.getName(), result)) {
+                        onWrite.run();
+                    }
+                    return result;
+                });
+    }
+
+    private static boolean isWrite(String name, Object result) {
+        return switch (name) {
+            case "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch" -> true;
+            case "execute" -> Boolean.FALSE.equals(result); //false : 결과가 ResultSet 이 아니라 update count
+            default -> false;
+        };
+    }
+
+    private void writeExecuted() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) { //auto-commit : 바로 반영된 것으로 본다
+            lastWriteCommittedAt.set(System.nanoTime());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteCommittedAt.set(System.nanoTime());
+            }
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package study.querydsl.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import study.querydsl.metrics.SlowQueryLog;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+//Statement 실행 시간을 재서 SlowQueryLog threshold 를 넘은 문장만 SQL + 바인딩 파라미터와 함께 넘긴다
+//p6spy 처럼 모든 문장을 로그로 남기지 않으므로 운영에서 켜 둘 수 있다
+//EXPLAIN 은 문장이 실제로 실행된 DB(primary/replica)로 보낸다 - 커넥션마다 첫 Statement 를 만들 때 라우팅 결과를 잡아 둔다
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+    private volatile SlowQueryLog slowQueryLog; //BeanPostProcessor 단계에서 만들어지므로 처음 쓸 때 찾는다
+
+    public SlowQueryDataSource(DataSource target, ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        super(target);
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        DataSource[] routed = new DataSource[1]; //LazyConnectionDataSourceProxy 는 첫 Statement 를 만들 때 실제 커넥션을 얻는다
+        return (Connection) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object identity = JdbcProxies.identity(proxy, method, args);
+                    if (identity != JdbcProxies.NOT_HANDLED) {
+                        return identity;
+                    }
+                    String name = method.getName();
+                    Object result = JdbcProxies.invoke(connection, method, args);
+                    boolean prepared = name.equals("prepareStatement") || name.equals("prepareCall");
+                    if (prepared || name.equals("createStatement")) {
+                        if (routed[0] == null) {
+                            routed[0] = routedTarget(connection);
+                        }
+                        return prepared
+                                ? wrap((Statement) result, method.getReturnType(), (String) args[0], routed[0], (Connection) proxy)
+                                : wrap((Statement) result, Statement.class, null, routed[0], (Connection) proxy);
+                    }
+                    return result;
+                });
+    }
+
+    //읽기/쓰기 라우팅이 있으면 이 커넥션이 실제로 연결된 쪽 (Statement 를 만들었으니 LazyConnectionDataSourceProxy 도 이미 연결됨)
+    //없으면 감싸기 전 원본
+    private DataSource routedTarget(Connection connection) throws SQLException {
+        if (connection.isWrapperFor(ReadWriteRoutingDataSource.RoutedConnection.class)) {
+            return connection.unwrap(ReadWriteRoutingDataSource.RoutedConnection.class).routedDataSource();
+        }
+        return getTargetDataSource();
+    }
+
+    private Statement wrap(Statement statement, Class<?> type, String preparedSql, DataSource explainTarget,
+                           Connection connectionProxy) {
+        List<Object> params = new ArrayList<>();
+        return (Statement) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Object identity = JdbcProxies.identity(proxy, method, args);
+                    if (identity != JdbcProxies.NOT_HANDLED) {
+                        return identity;
+                    }
+                    String name = method.getName();
+                    if (name.equals("getConnection")) { //원본 커넥션이 새어 나가지 않게
+                        return connectionProxy;
+                    }
+                    if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) { //setLong(1, 10L), setNull(2, Types.VARCHAR) ...
+                        while (params.size() < index) {
+                            params.add(null);
+                        }
+                        params.set(index - 1, name.equals("setNull") ? null : args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        params.clear();
+                    }
+                    if (!EXECUTE_METHODS.contains(name)) {
+                        return JdbcProxies.invoke(statement, method, args);
+                    }
+
+                    long start = System.nanoTime();
+                    Object result = JdbcProxies.invoke(statement, method, args);
+                    long elapsed = System.nanoTime() - start;
+                    SlowQueryLog log = slowQueryLog();
+                    if (log.isSlow(elapsed)) {
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args[0] instanceof String executed ? executed : "(batch)";
+                        boolean batch = name.endsWith("Batch"); //바인딩 값은 마지막 행만 남아 있어 기록하지 않는다
+                        log.record(sql, batch ? List.of() : new ArrayList<>(params), batch, elapsed, explainTarget);
+                    }
+                    return result;
+                });
+    }
+
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogProvider.getObject();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+}
@@ -0,0 +1,68 @@
+package study.querydsl.config;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+//작업 스레드가 실행 중인 JDBC Statement 를 다른 스레드에서 취소하기 위한 핸들
+//Future.cancel(true) 의 인터럽트는 소켓에서 결과를 기다리는 JDBC 호출을 멈추지 못하므로 Statement.cancel 로 DB 쪽 실행을 끊는다
+//작업 스레드에 bind 해 두면 DeadlineDataSource 가 만드는 Statement 가 여기에 등록된다
+public final class StatementCancelHandle {
+
+    private static final ThreadLocal<StatementCancelHandle> current = new ThreadLocal<>();
+
+    private final List<Statement> statements = new ArrayList<>();
+    private boolean running = true;
+    private boolean cancelled;
+
+    public static StatementCancelHandle bind(StatementCancelHandle handle) {
+        StatementCancelHandle previous = current.get();
+        current.set(handle);
+        return previous;
+    }
+
+    //bind 가 돌려준 이전 핸들로 되돌린다 (CallerRuns 로 요청 스레드에서 돌았을 수도 있음)
+    public static void restore(StatementCancelHandle previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    static void register(Statement statement) throws SQLException {
+        StatementCancelHandle handle = current.get();
+        if (handle != null) {
+            handle.add(statement);
+        }
+    }
+
+    private synchronized void add(Statement statement) throws SQLException {
+        if (cancelled) { //취소된 뒤에는 새 SQL 을 보내지 않는다
+            statement.close();
+            throw new SQLException("취소된 작업");
+        }
+        statements.add(statement);
+    }
+
+    //작업이 끝난 뒤의 cancel 은 아무 일도 하지 않는다 (풀에 반납된 커넥션의 다른 쿼리를 건드리지 않게)
+    public synchronized void finish() {
+        running = false;
+        statements.clear();
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (!running) {
+            return;
+        }
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                //이미 닫힌 Statement
+            }
+        }
+    }
+}
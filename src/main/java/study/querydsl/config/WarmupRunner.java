@@ -0,0 +1,171 @@
+package study.querydsl.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSearchQueryCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//배포 직후 JIT / 하이버네이트 쿼리 플랜 캐시 / Jackson 직렬화 경로를 미리 데운다
+//검색조건 모양 16가지 x 페이지 크기를 /v1, /v2 와 같은 쿼리(읽기 전용 트랜잭션)로 반복 실행하고
+//라운드별 지연시간이 settle-rounds 라운드 연속 tolerance 안으로 들어오면(또는 max-duration) 끝낸다
+//워밍업이 실패해도(DB 지연 등) 로그만 남기고 기동은 계속한다 - 데우지 못했을 뿐 서비스는 가능
+//
+//스프링 부트는 ApplicationRunner 가 모두 끝난 뒤에 readiness 를 ACCEPTING_TRAFFIC 으로 바꾼다
+//-> 여기서 동기로 데우는 동안 /actuator/health/readiness 는 OUT_OF_SERVICE, 로드밸런서가 트래픽을 보내지 않는다
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private final MemberSearchQueryCache memberSearchQueryCache;
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    private final String username;
+    private final String teamName;
+    private final int ageGoe;
+    private final int ageLoe;
+    private final int[] pageSizes;
+    private final Duration maxDuration;
+    private final int minRounds;
+    private final int settleRounds;
+    private final double tolerance;
+
+    public WarmupRunner(MemberSearchQueryCache memberSearchQueryCache,
+                        MemberRepository memberRepository,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.warmup.username:member1}") String username,
+                        @Value("${app.warmup.team-name:teamA}") String teamName,
+                        @Value("${app.warmup.age-goe:10}") int ageGoe,
+                        @Value("${app.warmup.age-loe:40}") int ageLoe,
+                        @Value("${app.warmup.page-sizes:20,100}") int[] pageSizes,
+                        @Value("${app.warmup.max-duration:60s}") Duration maxDuration,
+                        @Value("${app.warmup.min-rounds:20}") int minRounds,
+                        @Value("${app.warmup.settle-rounds:5}") int settleRounds,
+                        @Value("${app.warmup.tolerance:0.1}") double tolerance) {
+        if (settleRounds < 1 || pageSizes.length == 0) {
+            throw new IllegalArgumentException("app.warmup.settle-rounds 는 1 이상, page-sizes 는 하나 이상이어야 함");
+        }
+        this.memberSearchQueryCache = memberSearchQueryCache;
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true); //검색과 같이 replica 로 라우팅
+        this.username = username;
+        this.teamName = teamName;
+        this.ageGoe = ageGoe;
+        this.ageLoe = ageLoe;
+        this.pageSizes = pageSizes;
+        this.maxDuration = maxDuration;
+        this.minRounds = Math.max(minRounds, settleRounds); //settled() 가 최근 settleRounds 라운드를 본다
+        this.settleRounds = settleRounds;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            warmup();
+        } catch (Exception e) {
+            log.warn("워밍업 실패 : 데우지 않고 기동을 계속함", e);
+        }
+    }
+
+    private void warmup() throws Exception {
+        List<MemberSearchCondition> conditions = conditions();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        List<Long> roundMeans = new ArrayList<>();
+        long[] first = null;
+        long[] last = null;
+        boolean settled = false;
+        while (System.nanoTime() < deadline) {
+            last = round(conditions);
+            if (first == null) {
+                first = last;
+            }
+            roundMeans.add(Arrays.stream(last).sum() / last.length);
+            if (roundMeans.size() >= minRounds && settled(roundMeans)) {
+                settled = true;
+                break;
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (first == null) {
+            log.warn("워밍업 : max-duration({}) 안에 한 라운드도 끝내지 못함", maxDuration);
+            return;
+        }
+        log.info("워밍업 {} : {} ms, {} 라운드 (라운드당 {} 요청) | 첫 라운드 p50 {} us, p99 {} us -> 마지막 라운드 p50 {} us, p99 {} us",
+                settled ? "완료" : "시간 초과", elapsedMillis, roundMeans.size(), last.length,
+                percentile(first, 0.5), percentile(first, 0.99), percentile(last, 0.5), percentile(last, 0.99));
+    }
+
+    //한 라운드 : 모든 조건 모양 x (v1 + v2 페이지 크기별), 요청별 지연시간(ns)
+    //v1 은 전체 조회지만 여기서는 같은 쿼리 모양을 가장 큰 페이지 크기까지만 읽는다 (회원이 많아도 기동 시간이 늘지 않게)
+    private long[] round(List<MemberSearchCondition> conditions) throws Exception {
+        int v1Limit = Arrays.stream(pageSizes).max().orElseThrow();
+        long[] latencies = new long[conditions.size() * (1 + pageSizes.length)];
+        int i = 0;
+        for (MemberSearchCondition condition : conditions) {
+            long start = System.nanoTime();
+            objectMapper.writeValueAsBytes(readOnlyTx.execute(status -> memberSearchQueryCache.dtoQuery(condition)
+                    .setMaxResults(v1Limit)
+                    .getResultList())); //응답 직렬화까지 데운다
+            latencies[i++] = System.nanoTime() - start;
+
+            for (int pageSize : pageSizes) {
+                start = System.nanoTime();
+                objectMapper.writeValueAsBytes(readOnlyTx.execute(status ->
+                        memberRepository.searchPageSimple(condition, PageRequest.of(0, pageSize))));
+                latencies[i++] = System.nanoTime() - start;
+            }
+        }
+        return latencies;
+    }
+
+    //최근 settleRounds 라운드의 평균 지연시간이 서로 tolerance 이내
+    private boolean settled(List<Long> roundMeans) {
+        List<Long> recent = roundMeans.subList(roundMeans.size() - settleRounds, roundMeans.size());
+        long min = recent.stream().mapToLong(Long::longValue).min().orElseThrow();
+        long max = recent.stream().mapToLong(Long::longValue).max().orElseThrow();
+        return max - min <= min * tolerance;
+    }
+
+    //조건 4개의 모든 조합 (MemberSearchQueryCache 의 모양 16가지)
+    private List<MemberSearchCondition> conditions() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        for (int shape = 0; shape < 16; shape++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            if ((shape & 1) != 0) condition.setUsername(username);
+            if ((shape & 2) != 0) condition.setTeamName(teamName);
+            if ((shape & 4) != 0) condition.setAgeGoe(ageGoe);
+            if ((shape & 8) != 0) condition.setAgeLoe(ageLoe);
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1000;
+    }
+}
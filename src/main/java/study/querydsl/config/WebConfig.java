@@ -0,0 +1,31 @@
+package study.querydsl.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final QueryDeadlineInterceptor queryDeadlineInterceptor;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor) //입장 제어가 먼저 (거절되면 나머지는 실행 안 함)
+                .addPathPatterns("/v1/**", "/v2/**", "/v3/**");
+        registry.addInterceptor(queryDeadlineInterceptor)
+                .addPathPatterns("/v1/**", "/v2/**", "/v3/**");
+    }
+
+    //기본 컨버터(Jackson) 뒤에 추가 -> Accept 에 바이너리를 명시한 경우에만 선택된다
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MemberBinaryHttpMessageConverter());
+    }
+}
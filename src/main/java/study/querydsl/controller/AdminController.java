@@ -0,0 +1,48 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.metrics.SlowQueryLog;
+import study.querydsl.repository.MemberCountCache;
+import study.querydsl.repository.MemberSearchQueryCache;
+import study.querydsl.repository.SecondLevelCacheStatistics;
+
+import java.util.List;
+
+//운영 확인용 엔드포인트
+@RestController
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final MemberCountCache memberCountCache;
+    private final MemberSearchQueryCache memberSearchQueryCache;
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    private final SlowQueryLog slowQueryLog;
+
+    @GetMapping("/admin/cache/member-count") //count 캐시 hit/miss 확인
+    public MemberCountCache.Stats memberCountCacheStats() {
+        return memberCountCache.stats();
+    }
+
+    @GetMapping("/admin/query-shapes") //검색조건 모양별 쿼리 생성 비용 / 재사용 1회당 아낀 시간(측정값 차이)
+    public List<MemberSearchQueryCache.ShapeStats> queryShapeStats() {
+        return memberSearchQueryCache.stats();
+    }
+
+    @GetMapping("/admin/cache/team") //Team 2차 캐시 / 쿼리 캐시 hit ratio
+    public SecondLevelCacheStatistics.Stats teamCacheStats() {
+        return secondLevelCacheStatistics.team();
+    }
+
+    @GetMapping("/admin/slow-queries") //threshold 이상 걸린 쿼리 최신 순 (파라미터, 호출 메서드, 실행 계획)
+    public List<SlowQueryLog.SlowQuery> slowQueries() {
+        return slowQueryLog.entries();
+    }
+
+    @DeleteMapping("/admin/slow-queries")
+    public void clearSlowQueries() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package study.querydsl.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import study.querydsl.dto.ErrorResult;
+import study.querydsl.exception.BadSearchRequestException;
+
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    //요청 쿼리 데드라인 초과 (DB 쪽 쿼리는 드라이버가 cancel)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class,
+            org.hibernate.QueryTimeoutException.class})
+    public ErrorResult queryTimeout(RuntimeException e) {
+        log.warn("쿼리 데드라인 초과: {}", e.getMessage());
+        return new ErrorResult("QUERY_DEADLINE_EXCEEDED", "요청 처리 시간 제한을 넘어 쿼리를 취소했습니다. 조건을 좁혀서 다시 시도하세요.");
+    }
+
+    //잘못된 커서, 허용하지 않는 정렬, 범위를 넘는 페이지 (다른 IllegalArgumentException 은 서버 오류 그대로)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(BadSearchRequestException.class)
+    public ErrorResult badRequest(BadSearchRequestException e) {
+        return new ErrorResult("BAD_REQUEST", e.getMessage());
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+//검색 결과를 한 줄에 하나씩(NDJSON) 바로바로 응답에 써준다 -> 결과 건수와 상관없이 힙 사용량이 일정하다
+//클라이언트 연결 끊김은 쓰기/flush 가 실패해야 알 수 있어서 최대 flush-every 행(+ 응답 버퍼 크기)만큼 늦게 알아챈다
+//  그동안은 DB 커서를 계속 읽는다 -> flush-every 를 줄이면 빨리 멈추지만 작은 패킷이 많아진다
+@Component
+public class MemberNdjsonWriter {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    public MemberNdjsonWriter(MemberJpaRepository memberJpaRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${member.stream.fetch-size:500}") int fetchSize,
+                              @Value("${member.stream.flush-every:500}") int flushEvery) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writer = objectMapper.writerFor(MemberTeamDto.class);
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    public void write(MemberSearchCondition condition, OutputStream out) throws IOException {
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<MemberTeamDto> rows = memberJpaRepository.searchStream(condition, fetchSize)) {
+                    Iterator<MemberTeamDto> iterator = rows.iterator();
+                    int written = 0;
+                    while (iterator.hasNext()) {
+                        out.write(writer.writeValueAsBytes(iterator.next()));
+                        out.write('\n');
+                        //주기적으로 flush : 클라이언트가 끊겼으면 여기서 IOException이 나고 커서를 닫으면서 쿼리를 멈춘다
+                        if (++written % flushEvery == 0) {
+                            out.flush();
+                        }
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
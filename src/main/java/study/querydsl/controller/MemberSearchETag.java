@@ -0,0 +1,35 @@
+package study.querydsl.controller;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.DigestUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.util.StringUtils.hasText;
+
+//검색 응답 ETag = 검색조건(정규화) + 페이지 + 응답 포맷(Accept) + 데이터 버전
+//데이터 버전이 그대로면 같은 조건/페이지의 응답도 그대로이므로 검색/count 쿼리 없이(버전 행 한 건만 읽고) 304 를 돌려줄 수 있다
+//버전은 DB 에 있으므로 어느 인스턴스에서 계산해도 같은 ETag
+final class MemberSearchETag {
+
+    private MemberSearchETag() {
+    }
+
+    static String of(MemberSearchCondition condition, Pageable pageable, String accept, long dataVersion) {
+        String key = normalize(condition.getUsername())
+                + '|' + normalize(condition.getTeamName())
+                + '|' + condition.getAgeGoe()
+                + '|' + condition.getAgeLoe()
+                + '|' + (pageable.isPaged() ? pageable.getPageNumber() + ":" + pageable.getPageSize() : "unpaged")
+                + '|' + pageable.getSort()
+                + '|' + accept; //JSON / 바이너리 응답이 같은 ETag 를 쓰지 않게
+        String hash = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        return "\"" + dataVersion + "-" + hash + "\"";
+    }
+
+    //"" , "  " 는 조건 없음과 같은 쿼리가 되므로 같은 ETag (MemberCountCache 와 같은 규칙)
+    private static String normalize(String value) {
+        return hasText(value) ? value : "";
+    }
+}
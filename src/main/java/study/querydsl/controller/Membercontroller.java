@@ -3,10 +3,20 @@ package study.querydsl.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.config.ConcurrencyLimited;
+import study.querydsl.config.QueryDeadline;
+import study.querydsl.dto.MemberCursorPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberDataVersion;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
 
@@ -18,16 +28,51 @@ public class Membercontroller {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberNdjsonWriter memberNdjsonWriter;
+    private final MemberDataVersion memberDataVersion;
 
-    //순수JPA
+    //순수JPA (Accept: application/x-member-team-binary 이면 바이너리 응답, MemberBinaryReader 로 읽는다)
+    @ConcurrencyLimited("search-v1")
+    @QueryDeadline(millis = 5000) //조건 없는 전체 조회도 5초 넘게 커넥션을 잡지 못하게
     @GetMapping("/v1/members") //예시 : localhost:8080/v1/members?teamName=teamB&ageGoe=31&ageLoe=35
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition){
+    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition, WebRequest webRequest){
+        if (webRequest.checkNotModified(MemberSearchETag.of(condition, Pageable.unpaged(),
+                webRequest.getHeader(HttpHeaders.ACCEPT), memberDataVersion.current()))) {
+            return null; //304 - 검색 쿼리 실행 안 함
+        }
         return memberJpaRepository.search(condition);
     }
 
+    //순수JPA - 스트리밍(NDJSON), 전체 조회여도 메모리에 다 올리지 않는다
+    @GetMapping(value = "/v1/members/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamMemberV1(MemberSearchCondition condition) {
+        StreamingResponseBody body = out -> memberNdjsonWriter.write(condition, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     //querydsl
+    @ConcurrencyLimited("search-v2")
+    @QueryDeadline(millis = 3000)
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {//localhost:8080/v2/members?size=5&page=2
+    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable,
+                                              @RequestParam(defaultValue = "false") boolean concurrent,
+                                              WebRequest webRequest) {//localhost:8080/v2/members?size=5&page=2
+        //폴링 클라이언트 : If-None-Match 의 ETag 가 그대로면 304 (내용/count 쿼리 둘 다 생략)
+        if (webRequest.checkNotModified(MemberSearchETag.of(condition, pageable,
+                webRequest.getHeader(HttpHeaders.ACCEPT), memberDataVersion.current()))) {
+            return null;
+        }
+        if (concurrent) { //내용/count 쿼리 동시 실행 : localhost:8080/v2/members?size=5&page=2&concurrent=true
+            return memberRepository.searchPageConcurrent(condition, pageable);
+        }
         return memberRepository.searchPageSimple(condition, pageable);
     }
+
+    //키셋 페이징
+    @GetMapping("/v3/members") //localhost:8080/v3/members?size=5&cursor={이전 응답의 nextCursor}
+    public MemberCursorPage searchMemberV3(MemberSearchCondition condition,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int size) {
+        return memberRepository.searchByCursor(condition, cursor, Math.min(Math.max(size, 1), 1000));
+    }
 }
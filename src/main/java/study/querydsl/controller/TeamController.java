@@ -0,0 +1,22 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.TeamDto;
+import study.querydsl.repository.TeamQueryRepository;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamQueryRepository teamQueryRepository;
+
+    @GetMapping("/v1/teams") //localhost:8080/v1/teams?withMembers=true&size=20&page=0
+    public Page<TeamDto> teams(Pageable pageable, @RequestParam(defaultValue = "false") boolean withMembers) {
+        return teamQueryRepository.findTeams(pageable, withMembers);
+    }
+}
@@ -4,11 +4,19 @@ import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 @Profile("local")
 @Component
@@ -22,24 +30,93 @@ public class initMember {
         initMemberService.init();
     }
 
+    //대량 데이터 적재용 (seed.* 설정으로 건수/팀 수/나이 분포 조절)
+    //- hibernate.jdbc.batch_size 로 insert 를 JDBC 배치로 묶고
+    //- batch-size 마다 flush/clear 해서 영속성 컨텍스트가 커지지 않게 하고
+    //- commit-interval 마다 커밋해서 트랜잭션이 너무 길어지지 않게 한다
+    //- id 는 시퀀스 allocationSize 만큼 한 번에 받아온다 (Member 엔티티 참고)
+    //- count 캐시 무효화 / 데이터 버전 증가는 건마다가 아니라 커밋(청크)마다 한 번 (MemberChangeListener.bulkWrite)
+    @Slf4j
     @Component
     static class InitMemberService {
         @PersistenceContext
         private EntityManager em;
 
-        @Transactional
+        private final TransactionTemplate transactionTemplate;
+        private final MemberChangeListener memberChangeListener;
+
+        @Value("${seed.members:100}") private int memberCount;
+        @Value("${seed.teams:2}") private int teamCount;
+        @Value("${seed.age-distribution:sequential}") private String ageDistribution; //sequential, uniform, normal
+        @Value("${seed.age-min:0}") private int ageMin;
+        @Value("${seed.age-max:99}") private int ageMax;
+        @Value("${seed.batch-size:1000}") private int batchSize;
+        @Value("${seed.commit-interval:100000}") private int commitInterval;
+        @Value("${seed.random-seed:42}") private long randomSeed;
+
+        InitMemberService(PlatformTransactionManager transactionManager, MemberChangeListener memberChangeListener) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.memberChangeListener = memberChangeListener;
+        }
+
         public void init(){
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
+            long start = System.nanoTime();
+            Random random = new Random(randomSeed);
+
+            List<Long> teamIds = transactionTemplate.execute(status -> {
+                memberChangeListener.bulkWrite();
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < teamCount; i++) {
+                    Team team = new Team(teamName(i));
+                    em.persist(team);
+                    ids.add(team.getId());
+                }
+                return ids;
+            });
 
-            em.persist(teamA);
-            em.persist(teamB);
+            for (int from = 0; from < memberCount; from += commitInterval) {
+                int to = Math.min(from + commitInterval, memberCount);
+                int chunkStart = from;
+                transactionTemplate.executeWithoutResult(status -> {
+                    memberChangeListener.bulkWrite();
+                    for (int i = chunkStart; i < to; i++) {
+                        Member member = new Member("member" + i, age(i, random));
+                        //팀 컬렉션(team.members)은 건드리지 않고 FK만 세팅 -> 팀 로딩 없이 참조(proxy)만 사용
+                        member.setTeam(em.getReference(Team.class, teamIds.get(i % teamCount)));
+                        em.persist(member);
 
-            for (int i = 0; i < 100; i++) {
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member("member" + i, i, selectedTeam));
+                        if ((i + 1) % batchSize == 0) {
+                            em.flush();
+                            em.clear();
+                        }
+                    }
+                });
             }
 
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            long rows = (long) memberCount + teamCount;
+            log.info("seed 완료: members={}, teams={}, {}s, {} rows/s",
+                    memberCount, teamCount, String.format("%.2f", seconds), Math.round(rows / Math.max(seconds, 0.001)));
+        }
+
+        //teamA, teamB ... (26개 넘으면 team26, team27 ...)
+        private static String teamName(int i) {
+            return i < 26 ? "team" + (char) ('A' + i) : "team" + i;
+        }
+
+        private int age(int i, Random random) {
+            int range = ageMax - ageMin + 1;
+            switch (ageDistribution) {
+                case "uniform":
+                    return ageMin + random.nextInt(range);
+                case "normal":
+                    double mean = (ageMin + ageMax) / 2.0;
+                    double sd = range / 6.0;
+                    long age = Math.round(mean + random.nextGaussian() * sd);
+                    return (int) Math.max(ageMin, Math.min(ageMax, age));
+                default: //sequential : 기존처럼 member0 = 0살, member1 = 1살 ...
+                    return ageMin + i % range;
+            }
         }
     }
 
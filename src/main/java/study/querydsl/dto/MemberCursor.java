@@ -0,0 +1,40 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import study.querydsl.exception.BadSearchRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//키셋(seek) 페이징 커서 : 마지막으로 읽은 (age, member_id)
+//클라이언트에는 Base64 문자열로만 노출해서 내부 구조를 모르게 한다
+@Getter
+public class MemberCursor {
+
+    private final int age;
+    private final Long memberId;
+
+    public MemberCursor(int age, Long memberId) {
+        this.age = age;
+        this.memberId = memberId;
+    }
+
+    public static MemberCursor of(MemberTeamDto last) {
+        return new MemberCursor(last.getAge(), last.getMemberId());
+    }
+
+    public String encode() {
+        String raw = age + ":" + memberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(':');
+            return new MemberCursor(Integer.parseInt(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+        } catch (RuntimeException e) {
+            throw new BadSearchRequestException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MemberCursorPage {
+
+    private List<MemberTeamDto> content;
+    private String nextCursor; //다음 페이지가 없으면 null
+    private boolean hasNext;
+
+    public MemberCursorPage(List<MemberTeamDto> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,20 @@
+package study.querydsl.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL) //withMembers=false 면 members 는 응답에서 빠진다
+public class TeamDto {
+
+    private Long teamId;
+    private String name;
+    private List<MemberDto> members;
+
+    public TeamDto(Long teamId, String name) {
+        this.teamId = teamId;
+        this.name = name;
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+//id 필드에 붙이면 BlockSequenceGenerator 로 id 를 만든다
+@IdGeneratorType(BlockSequenceGenerator.class)
+@Target({FIELD, METHOD})
+@Retention(RUNTIME)
+public @interface BlockSequence {
+
+    //DB 시퀀스 이름
+    String name();
+
+    //시퀀스 한 번 호출로 확보할 id 개수, 0 이면 app.id.block-size 설정값
+    int blockSize() default 0;
+}
@@ -0,0 +1,187 @@
+package study.querydsl.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.jdbc.AbstractReturningWork;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+//대량 적재용 id 생성기 (@BlockSequence 로 Member, Team 에 지정)
+//
+//기본 모드 : DB 시퀀스 + pooled-lo 최적화
+//  시퀀스 한 번 호출로 block-size 개의 id 를 확보하고 나머지는 메모리에서 증가시킨다
+//  블록은 DB 시퀀스가 나눠주므로 인스턴스가 여러 대여도 겹치지 않는다
+//  블록 크기 : spring.jpa.properties.app.id.block-size (엔티티에서 @BlockSequence(blockSize) 로 직접 지정하면 그 값)
+//  ddl-auto 가 시퀀스를 같은 increment 로 만든다 / 이미 있는 DB 에서 블록 크기를 바꾸면 시퀀스 increment 도 같이 바꿔야 한다
+//
+//시간 순 모드 : spring.jpa.properties.app.id.time-ordered=true
+//  id = (2024-01-01 이후 ms) 41bit | 노드 10bit | 같은 ms 안의 순번 12bit
+//  항상 증가하므로 PK 인덱스 오른쪽 끝에만 추가된다 (시퀀스 블록처럼 인스턴스별로 구간이 벌어지지 않음)
+//  노드 번호는 id_node_lease 테이블에서 임대한다 (app.id.node-lease-ttl, 기본 60초)
+//    비어 있거나 만료된 노드만 가져가고, id 를 만들면서 남은 시간이 절반 아래로 떨어지면 연장한다
+//    연장하지 못했으면(오래 멈춰 있는 사이 다른 인스턴스가 가져감) 새 노드를 받는다 -> 살아 있는 인스턴스끼리는 겹치지 않는다
+//    만료 절반 전부터는 그 노드로 id 를 만들지 않으므로 인스턴스 간 시계 차이가 TTL 절반보다 작아야 한다
+//    생성기(엔티티)마다 노드를 하나씩 쓰므로 동시에 떠 있을 수 있는 인스턴스는 1024 / 엔티티 수 대, 넘으면 id 생성이 실패한다
+//  id 가 2^53 을 넘으므로 JSON 에서는 문자열로 내보낸다 (MemberJsonModule)
+//  시퀀스 id 보다 항상 크므로 기존 데이터에서 전환할 수 있지만, 되돌리면 겹칠 수 있다
+public class BlockSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String BLOCK_SIZE = "app.id.block-size";
+    public static final String TIME_ORDERED = "app.id.time-ordered";
+    public static final String NODE_LEASE_TTL = "app.id.node-lease-ttl"; //초
+    private static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    private static final long EPOCH = 1704067200000L; //2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final int NODE_COUNT = 1 << NODE_BITS;
+    private static final int LEASE_ATTEMPTS = 3;
+
+    private final BlockSequence annotation;
+    private final String holder = UUID.randomUUID().toString();
+    private boolean timeOrdered;
+    private long leaseTtlMillis;
+    private long node = -1;
+    private long leaseExpiresAt;
+    private long lastMillis = -1;
+    private long sequence;
+
+    //@IdGeneratorType 로 만들 때 하이버네이트가 호출하는 생성자
+    public BlockSequenceGenerator(BlockSequence annotation, java.lang.reflect.Member member, CustomIdGeneratorCreationContext creationContext) {
+        this.annotation = annotation;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService config = serviceRegistry.requireService(ConfigurationService.class);
+        parameters.put(SEQUENCE_PARAM, annotation.name());
+        int blockSize = annotation.blockSize() > 0
+                ? annotation.blockSize()
+                : config.getSetting(BLOCK_SIZE, StandardConverters.INTEGER, DEFAULT_BLOCK_SIZE);
+        parameters.put(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(blockSize));
+        parameters.putIfAbsent(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        timeOrdered = config.getSetting(TIME_ORDERED, StandardConverters.BOOLEAN, false);
+        leaseTtlMillis = config.getSetting(NODE_LEASE_TTL, StandardConverters.INTEGER, 60) * 1000L;
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (!timeOrdered) {
+            return super.generate(session, object);
+        }
+        return nextTimeOrdered(session);
+    }
+
+    private synchronized long nextTimeOrdered(SharedSessionContractImplementor session) {
+        if (node < 0 || System.currentTimeMillis() >= leaseExpiresAt - leaseTtlMillis / 2) {
+            lease(session);
+        }
+        //시계가 뒤로 가도 마지막 시각을 계속 써서 id 는 줄어들지 않는다
+        long now = Math.max(System.currentTimeMillis() - EPOCH, lastMillis);
+        if (now == lastMillis) {
+            if (++sequence > MAX_SEQUENCE) { //같은 ms 에 4096 개를 넘으면 다음 ms 를 당겨 쓴다
+                now++;
+                sequence = 0;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return (now << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    //현재 노드를 연장하거나 새 노드를 임대한다 (id 를 만드는 트랜잭션과 별개의 트랜잭션)
+    private void lease(SharedSessionContractImplementor session) {
+        for (int attempt = 0; attempt < LEASE_ATTEMPTS; attempt++) {
+            long now = System.currentTimeMillis();
+            long expiresAt = now + leaseTtlMillis;
+            Long leased = session.getTransactionCoordinator().createIsolationDelegate().delegateWork(
+                    new AbstractReturningWork<Long>() {
+                        @Override
+                        public Long execute(Connection connection) throws SQLException {
+                            if (node >= 0 && renew(connection, expiresAt)) {
+                                return node;
+                            }
+                            return acquire(connection, now, expiresAt);
+                        }
+                    }, true);
+            if (leased >= 0) {
+                node = leased;
+                leaseExpiresAt = expiresAt;
+                return;
+            }
+        }
+        throw new IdentifierGenerationException("time-ordered id : 노드를 임대하지 못함 (다른 인스턴스와 경합)");
+    }
+
+    private boolean renew(Connection connection, long expiresAt) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "update id_node_lease set expires_at = ? where node = ? and holder = ?")) {
+            update.setLong(1, expiresAt);
+            update.setLong(2, node);
+            update.setString(3, holder);
+            return update.executeUpdate() == 1;
+        }
+    }
+
+    //비어 있는 노드는 insert, 만료된 노드는 조건부 update 로 가져간다. 경합에서 지면 -1 (다시 시도)
+    private long acquire(Connection connection, long now, long expiresAt) throws SQLException {
+        Map<Long, Long> leases = new HashMap<>();
+        try (PreparedStatement select = connection.prepareStatement("select node, expires_at from id_node_lease");
+             ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                leases.put(rs.getLong(1), rs.getLong(2));
+            }
+        }
+
+        for (long candidate = 0; candidate < NODE_COUNT; candidate++) {
+            Long current = leases.get(candidate);
+            if (current == null) {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "insert into id_node_lease (node, holder, expires_at) values (?, ?, ?)")) {
+                    insert.setLong(1, candidate);
+                    insert.setString(2, holder);
+                    insert.setLong(3, expiresAt);
+                    insert.executeUpdate();
+                    return candidate;
+                } catch (SQLException e) {
+                    if (e.getSQLState() != null && e.getSQLState().startsWith("23")) { //같은 노드를 먼저 넣은 인스턴스가 있음
+                        return -1;
+                    }
+                    throw e;
+                }
+            }
+            if (current < now) {
+                try (PreparedStatement update = connection.prepareStatement(
+                        "update id_node_lease set holder = ?, expires_at = ? where node = ? and expires_at = ?")) {
+                    update.setString(1, holder);
+                    update.setLong(2, expiresAt);
+                    update.setLong(3, candidate);
+                    update.setLong(4, current); //읽은 뒤 다른 인스턴스가 가져갔으면 0건
+                    if (update.executeUpdate() == 1) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        throw new IdentifierGenerationException("time-ordered id : 노드 " + NODE_COUNT + "개가 모두 임대 중");
+    }
+}
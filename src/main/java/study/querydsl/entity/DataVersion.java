@@ -0,0 +1,23 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//데이터 버전 카운터 (MemberDataVersion) - 인스턴스가 여러 대여도 같은 값을 보도록 DB 에 둔다
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DataVersion {
+
+    @Id
+    private String name;
+    private long version;
+
+    public DataVersion(String name, long version) {
+        this.name = name;
+        this.version = version;
+    }
+}
@@ -0,0 +1,20 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//시간 순 id 의 노드 번호 임대 (BlockSequenceGenerator 가 JDBC 로 직접 읽고 쓴다, 엔티티는 ddl-auto 로 테이블을 만들기 위한 것)
+//expiresAt 이 지난 노드만 다른 인스턴스가 가져갈 수 있다 -> 살아 있는 인스턴스끼리는 노드가 겹치지 않는다
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdNodeLease {
+
+    @Id
+    private long node;
+    private String holder;
+    private long expiresAt; //epoch ms
+}
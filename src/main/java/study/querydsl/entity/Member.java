@@ -2,15 +2,22 @@ package study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.querydsl.repository.MemberChangeListener;
 
 @Entity
+@Table(indexes = { //MemberSearchCondition 검색 조건별 인덱스
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"), //teamName(+age) 조건 : 팀 찾고 -> 팀 안에서 나이 범위
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_age", columnList = "age") //나이 범위만 있을 때
+})
+@EntityListeners(MemberChangeListener.class) //쓰기 발생 시 count 캐시 무효화 + 데이터 버전 갱신
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
     @Id
-    @GeneratedValue
+    @BlockSequence(name = "member_seq") //시퀀스 한 번 호출로 app.id.block-size 개 확보
     @Column(name = "member_id")
     private Long id;
     private String username;
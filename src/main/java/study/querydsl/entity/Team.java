@@ -2,23 +2,34 @@ package study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.querydsl.repository.MemberChangeListener;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name")) //teamName 조건
+@Cacheable
+@Cache(region = Team.CACHE_REGION, usage = CacheConcurrencyStrategy.READ_WRITE) //읽기 위주 -> 2차 캐시, 쓰기 시 하이버네이트가 캐시도 갱신
+@EntityListeners(MemberChangeListener.class) //쓰기 발생 시 count 캐시 무효화 + 데이터 버전 갱신
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team {
 
+    public static final String CACHE_REGION = "team"; //2차 캐시 리전 (크기/TTL 은 application.conf)
+
     @Id
-    @GeneratedValue
+    @BlockSequence(name = "team_seq", blockSize = 100) //팀은 적게 생기므로 블록 100개
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @BatchSize(size = 100) //여러 팀의 members 를 순회할 때 팀마다 select 하지 않고 IN 으로 100개씩 묶어서 로딩
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
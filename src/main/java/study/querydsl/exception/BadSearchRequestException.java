@@ -0,0 +1,14 @@
+package study.querydsl.exception;
+
+//클라이언트가 고칠 수 있는 검색 요청 오류 (잘못된 커서, 허용하지 않는 정렬, 범위를 넘는 페이지) -> 400
+//IllegalArgumentException 을 쓰면 코드 버그까지 400 으로 나가고, 리포지토리 예외 변환 프록시가 감싸기도 해서 따로 둔다
+public class BadSearchRequestException extends RuntimeException {
+
+    public BadSearchRequestException(String message) {
+        super(message);
+    }
+
+    public BadSearchRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,157 @@
+package study.querydsl.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.BlockSequenceGenerator;
+
+import java.io.IOException;
+import java.util.List;
+
+//검색 응답 DTO 전용 직렬화 (스프링 부트가 Module 빈을 ObjectMapper 에 자동 등록)
+//기본 BeanSerializer 는 프로퍼티마다 getter 리플렉션 + Long/int 박싱을 거친다
+//여기서는 필드명을 미리 인코딩해두고 getter 를 직접 호출해 바로 JsonGenerator 에 쓴다
+//출력 필드/순서는 기본 직렬화와 같다 (MemberJsonModuleTest 로 확인)
+//시간 순 id 모드(app.id.time-ordered)에서는 id 가 2^53 을 넘어 자바스크립트 number 로 정확히 못 읽으므로 id 를 문자열로 쓴다
+@Component
+public class MemberJsonModule extends SimpleModule {
+
+    public MemberJsonModule() {
+        this(false);
+    }
+
+    @Autowired
+    public MemberJsonModule(@Value("${spring.jpa.properties." + BlockSequenceGenerator.TIME_ORDERED + ":false}") boolean idsAsStrings) {
+        super("MemberJsonModule");
+        addSerializer(MemberTeamDto.class, new MemberTeamDtoSerializer(idsAsStrings));
+        addSerializer(MemberDto.class, new MemberDtoSerializer());
+        addSerializer(new PageSerializer());
+    }
+
+    static final class MemberTeamDtoSerializer extends StdSerializer<MemberTeamDto> {
+
+        private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+        private static final SerializableString USERNAME = new SerializedString("username");
+        private static final SerializableString AGE = new SerializedString("age");
+        private static final SerializableString TEAM_ID = new SerializedString("teamId");
+        private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+        private final boolean idsAsStrings;
+
+        MemberTeamDtoSerializer(boolean idsAsStrings) {
+            super(MemberTeamDto.class);
+            this.idsAsStrings = idsAsStrings;
+        }
+
+        @Override
+        public void serialize(MemberTeamDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(dto);
+            gen.writeFieldName(MEMBER_ID);
+            writeId(gen, dto.getMemberId(), idsAsStrings);
+            gen.writeFieldName(USERNAME);
+            gen.writeString(dto.getUsername());
+            gen.writeFieldName(AGE);
+            gen.writeNumber(dto.getAge());
+            gen.writeFieldName(TEAM_ID);
+            writeId(gen, dto.getTeamId(), idsAsStrings); //팀 없는 회원은 left join 이라 null
+            gen.writeFieldName(TEAM_NAME);
+            gen.writeString(dto.getTeamName());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class MemberDtoSerializer extends StdSerializer<MemberDto> {
+
+        private static final SerializableString USERNAME = new SerializedString("username");
+        private static final SerializableString AGE = new SerializedString("age");
+
+        MemberDtoSerializer() {
+            super(MemberDto.class);
+        }
+
+        @Override
+        public void serialize(MemberDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(dto);
+            gen.writeFieldName(USERNAME);
+            gen.writeString(dto.getUsername());
+            gen.writeFieldName(AGE);
+            gen.writeNumber(dto.getAge());
+            gen.writeEndObject();
+        }
+    }
+
+    //Page 는 기본 직렬화 시 pageable, sort, first, last ... 까지 전부 나가고 PageImpl 구조가 그대로 API 가 된다
+    //스프링 데이터의 VIA_DTO 모드와 같은 모양으로 줄인다 : {"content":[...],"page":{"size","number","totalElements","totalPages"}}
+    @SuppressWarnings("rawtypes")
+    static final class PageSerializer extends StdSerializer<Page> {
+
+        private static final SerializableString CONTENT = new SerializedString("content");
+        private static final SerializableString PAGE = new SerializedString("page");
+        private static final SerializableString SIZE = new SerializedString("size");
+        private static final SerializableString NUMBER = new SerializedString("number");
+        private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+        private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+        PageSerializer() {
+            super(Page.class);
+        }
+
+        @Override
+        public void serialize(Page page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(page);
+            gen.writeFieldName(CONTENT);
+            writeContent(page.getContent(), gen, provider);
+            gen.writeFieldName(PAGE);
+            gen.writeStartObject();
+            gen.writeFieldName(SIZE);
+            gen.writeNumber(page.getSize());
+            gen.writeFieldName(NUMBER);
+            gen.writeNumber(page.getNumber());
+            gen.writeFieldName(TOTAL_ELEMENTS);
+            gen.writeNumber(page.getTotalElements());
+            gen.writeFieldName(TOTAL_PAGES);
+            gen.writeNumber(page.getTotalPages());
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+
+        //요소 타입은 보통 하나뿐이므로 직전 serializer 를 재사용 (요소마다 serializer 조회 안 함)
+        private void writeContent(List<?> content, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(content, content.size());
+            Class<?> lastType = null;
+            JsonSerializer<Object> serializer = null;
+            for (Object element : content) {
+                if (element == null) {
+                    provider.defaultSerializeNull(gen);
+                    continue;
+                }
+                if (element.getClass() != lastType) {
+                    lastType = element.getClass();
+                    serializer = provider.findValueSerializer(lastType);
+                }
+                serializer.serialize(element, gen, provider);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static void writeId(JsonGenerator gen, Long value, boolean asString) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else if (asString) {
+            gen.writeString(Long.toString(value));
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+}
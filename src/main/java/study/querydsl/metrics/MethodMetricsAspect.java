@@ -0,0 +1,91 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberCursorPage;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+//리포지토리 / 컨트롤러 메서드별 지연시간(p50/p99/p999), 실행 SQL 수, 반환 row 수
+//조회 : /actuator/metrics/app.method.latency?tag=method:searchPageSimple
+//예외로 끝난 호출도 기록한다 : outcome(SUCCESS/ERROR), exception(예외 클래스명, 없으면 none) 태그로 구분
+//SQL 수는 SqlStatementCounter 가 스레드별로 세므로 호출 스레드에서 실행된 SQL 만 잡힌다
+//  -> searchPageConcurrent 는 내용/count 쿼리가 executor 스레드에서 돌아 statements 가 0 으로 잡힌다
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * study.querydsl.repository.MemberJpaRepository.*(..))" +
+            " || execution(public * study.querydsl.repository.MemberRepositoryImpl.*(..))" +
+            " || execution(public * study.querydsl.controller.Membercontroller.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        long sqlBefore = SqlStatementCounter.current();
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            String exception = failure == null ? "none" : failure.getClass().getSimpleName();
+            Meters m = meters.computeIfAbsent(joinPoint.getSignature().toShortString() + ":" + exception,
+                    key -> new Meters(registry, joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                            joinPoint.getSignature().getName(), exception));
+            m.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            m.statements.record(SqlStatementCounter.current() - sqlBefore);
+
+            long rows = failure == null ? rows(result) : -1;
+            if (rows >= 0) {
+                m.rows.record(rows);
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Slice<?> slice) return slice.getNumberOfElements(); //Page 포함
+        if (result instanceof MemberCursorPage page) return page.getContent().size();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        return -1;
+    }
+
+    private static class Meters {
+        private final Timer latency;
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+
+        Meters(MeterRegistry registry, String className, String method, String exception) {
+            Tags tags = Tags.of("class", className, "method", method,
+                    "outcome", "none".equals(exception) ? "SUCCESS" : "ERROR", "exception", exception);
+            this.latency = Timer.builder("app.method.latency")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(registry);
+            this.statements = DistributionSummary.builder("app.method.sql.statements")
+                    .tags(tags)
+                    .register(registry);
+            this.rows = DistributionSummary.builder("app.method.rows")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package study.querydsl.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+@Configuration
+public class MetricsConfig {
+
+    //SQL 수 집계용 inspector 등록, yml 에 설정된 inspector 가 있으면 감싸서 같이 동작하게 한다
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementCounterCustomizer(NPlusOneDetector nPlusOneDetector) {
+        return properties -> {
+            StatementInspector configured = toInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter(configured, nPlusOneDetector));
+        };
+    }
+
+    private static StatementInspector toInspector(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof StatementInspector inspector) {
+            return inspector;
+        }
+        Class<?> type = value instanceof Class<?> clazz ? clazz
+                : ClassUtils.resolveClassName(value.toString(), MetricsConfig.class.getClassLoader());
+        return (StatementInspector) BeanUtils.instantiateClass(type);
+    }
+}
@@ -0,0 +1,113 @@
+package study.querydsl.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//같은 세션(요청/트랜잭션) 안에서 같은 모양의 지연 로딩 SQL 이 threshold 번을 넘게 실행되면 N+1 로 판단
+//- LAZY 연관관계 로딩 직전에 NPlusOneListenerRegistrar 가 lazyLoadStarting() 으로 연관관계 이름을 알려주고
+//- 바로 다음 SQL 을 SqlStatementCounter 가 onStatement() 로 넘겨주면 (연관관계, SQL) 별로 센다
+//mode: log(경고 로그) / fail(NPlusOneException, 테스트에서 사용)
+//스레드 로컬은 세션이 닫힐 때 지운다 (풀 스레드에 지난 세션의 카운트/세션 참조가 남지 않게)
+@Slf4j
+@Component
+public class NPlusOneDetector {
+
+    private static final ThreadLocal<Context> contexts = new ThreadLocal<>();
+
+    private final int threshold;
+    private final boolean fail;
+
+    public NPlusOneDetector(@Value("${app.n-plus-one.threshold:10}") int threshold,
+                            @Value("${app.n-plus-one.mode:log}") String mode) {
+        this.threshold = threshold;
+        this.fail = "fail".equalsIgnoreCase(mode);
+    }
+
+    public void lazyLoadStarting(Session session, String association) {
+        Context context = contexts.get();
+        if (context == null || context.session != session) { //세션이 바뀌면 새로 센다
+            context = new Context(session);
+            contexts.set(context);
+            session.addEventListeners(new BaseSessionEventListener() {
+                @Override
+                public void end() {
+                    sessionClosed(session);
+                }
+            });
+        }
+        context.pendingAssociation = association;
+    }
+
+    //로딩이 끝남 : SQL 을 실행했으면 onStatement 가 이미 비웠고,
+    //영속성 컨텍스트 / 2차 캐시에서 찾아서 SQL 없이 끝났으면 여기서 비운다 (다음 SQL 이 이 연관관계로 잘못 세지지 않게)
+    public void lazyLoadFinished() {
+        Context context = contexts.get();
+        if (context != null) {
+            context.pendingAssociation = null;
+        }
+    }
+
+    public void onStatement(String sql) {
+        Context context = contexts.get();
+        if (context == null || context.pendingAssociation == null) {
+            return;
+        }
+        String association = context.pendingAssociation;
+        context.pendingAssociation = null;
+
+        int count = context.counts.merge(association + "|" + sql, 1, Integer::sum);
+        if (count == threshold + 1) { //한 번만 알림
+            String message = "N+1 의심: " + association + " 지연 로딩이 같은 SQL 로 " + count + "번 이상 실행됨, 호출 위치=" + callSite()
+                    + " -> fetch join 또는 batch fetch 를 고려";
+            if (fail) {
+                throw new NPlusOneException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    private static void sessionClosed(Session session) {
+        Context context = contexts.get();
+        if (context != null && context.session == session) {
+            contexts.remove();
+        }
+    }
+
+    //테스트용 : 이 스레드에 남아 있는 세션 컨텍스트가 있는지
+    static boolean hasContext() {
+        return contexts.get() != null;
+    }
+
+    //프록시/하이버네이트/이 패키지를 제외한 첫 번째 애플리케이션 코드 위치
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("study.querydsl.")
+                        && !f.getClassName().startsWith("study.querydsl.metrics.")
+                        && !f.getClassName().contains("$HibernateProxy"))
+                .findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static class Context {
+        private final Session session;
+        private final Map<String, Integer> counts = new HashMap<>();
+        private String pendingAssociation;
+
+        Context(Session session) {
+            this.session = session;
+        }
+    }
+
+    public static class NPlusOneException extends RuntimeException {
+        public NPlusOneException(String message) {
+            super(message);
+        }
+    }
+}
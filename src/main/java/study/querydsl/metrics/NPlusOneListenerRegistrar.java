@@ -0,0 +1,74 @@
+package study.querydsl.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.metamodel.mapping.internal.ToOneAttributeMapping;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//하이버네이트 이벤트 리스너로 LAZY 로딩 시작/끝을 NPlusOneDetector 에 알려준다
+//시작은 기본 리스너 앞(prepend), 끝은 기본 리스너 뒤(append) -> SQL 없이 끝난 로딩도 끝을 알 수 있다
+@Component
+@RequiredArgsConstructor
+public class NPlusOneListenerRegistrar {
+
+    private final EntityManagerFactory emf;
+    private final NPlusOneDetector detector;
+    private final Map<String, String> associationNames = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        //프록시 초기화(Member.team 등) - 기본 리스너보다 먼저 실행되어야 다음 SQL 과 연결할 수 있다
+        registry.prependListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                detector.lazyLoadStarting(event.getSession(), associationNames.computeIfAbsent(event.getEntityClassName(),
+                        entityName -> associationsTo(sessionFactory, entityName)));
+            }
+        });
+        //컬렉션 초기화(Team.members 등)
+        registry.prependListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                detector.lazyLoadStarting(event.getSession(), event.getCollection().getRole()));
+
+        //영속성 컨텍스트 / 2차 캐시에서 찾아 SQL 없이 끝난 경우 대기 중인 연관관계를 비운다
+        registry.appendListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                detector.lazyLoadFinished();
+            }
+        });
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                detector.lazyLoadFinished());
+    }
+
+    //프록시 로딩 이벤트에는 엔티티 이름만 있으므로 그 엔티티를 가리키는 연관관계를 찾아서 이름으로 쓴다 (예: Member.team)
+    private static String associationsTo(SessionFactoryImplementor sessionFactory, String entityName) {
+        List<String> associations = new ArrayList<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            descriptor.forEachAttributeMapping(attribute -> {
+                if (attribute instanceof ToOneAttributeMapping toOne
+                        && toOne.getAssociatedEntityMappingType().getEntityName().equals(entityName)) {
+                    associations.add(simpleName(descriptor) + "." + attribute.getAttributeName());
+                }
+            });
+        });
+        return associations.isEmpty() ? entityName : String.join(",", associations);
+    }
+
+    private static String simpleName(EntityPersister persister) {
+        String name = persister.getEntityName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
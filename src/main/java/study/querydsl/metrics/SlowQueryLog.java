@@ -0,0 +1,183 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+//느린 쿼리 기록 (SlowQueryDataSource 가 threshold 이상 걸린 문장만 넘겨준다)
+//SQL + 바인딩 파라미터 + 호출한 리포지토리 메서드를 최근 capacity 건까지 링 버퍼에 보관하고
+//실행 계획(EXPLAIN)은 별도 스레드에서 같은 파라미터로 떠서 나중에 채운다
+//조회 : /admin/slow-queries
+@Slf4j
+@Component
+public class SlowQueryLog {
+
+    private static final int MAX_PARAM_LENGTH = 200;
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final SlowQuery[] buffer;
+    private long written;
+
+    private final ThreadPoolExecutor explainExecutor;
+    private final Counter slowQueries;
+
+    public SlowQueryLog(MeterRegistry registry,
+                        @Value("${app.slow-query.enabled:true}") boolean enabled,
+                        @Value("${app.slow-query.threshold:200ms}") Duration threshold,
+                        @Value("${app.slow-query.capacity:100}") int capacity,
+                        @Value("${app.slow-query.explain:true}") boolean explain) {
+        this.enabled = enabled;
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+        this.buffer = new SlowQuery[capacity];
+        //EXPLAIN 은 한 번에 하나씩, 밀리면 버린다 (느린 쿼리가 몰릴 때 DB 에 부하를 더 얹지 않게)
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                r -> {
+                    Thread thread = new Thread(r, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.explainExecutor.allowCoreThreadTimeOut(true);
+        this.slowQueries = Counter.builder("app.slow-query.count").register(registry);
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return enabled && elapsedNanos >= thresholdNanos;
+    }
+
+    //params : 1번 파라미터부터 순서대로 (EXPLAIN 에 그대로 바인딩), batch 면 비어 있다
+    //explainTarget : 계획을 뜰 DataSource (문장이 실행된 primary/replica 원본)
+    public void record(String sql, List<Object> params, boolean batch, long elapsedNanos, DataSource explainTarget) {
+        SlowQuery slowQuery = new SlowQuery(sql, params, batch, elapsedNanos, origin());
+        slowQueries.increment();
+        synchronized (this) {
+            buffer[(int) (written++ % buffer.length)] = slowQuery;
+        }
+        log.warn("느린 쿼리 {}ms [{}] {} {}", slowQuery.elapsedMillis, slowQuery.origin, sql,
+                batch ? "(batch)" : slowQuery.params);
+
+        if (explain && !batch && isSelect(sql)) {
+            explainExecutor.execute(() -> slowQuery.plan = explain(sql, params, explainTarget));
+        }
+    }
+
+    //최신 순
+    public synchronized List<SlowQuery> entries() {
+        int size = (int) Math.min(written, buffer.length);
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(buffer[(int) ((written - i) % buffer.length)]);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        written = 0;
+    }
+
+    private static String explain(String sql, List<Object> params, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().trim();
+        } catch (Exception e) {
+            return "EXPLAIN 실패: " + e.getMessage();
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        String head = sql.stripLeading();
+        while (head.startsWith("/*")) { //hibernate.use_sql_comments : /* JPQL */ select ...
+            int end = head.indexOf("*/");
+            if (end < 0) {
+                return false;
+            }
+            head = head.substring(end + 2).stripLeading();
+        }
+        head = head.toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with");
+    }
+
+    //호출 스택에서 가장 바깥쪽 리포지토리 메서드 (예: MemberRepositoryImpl.searchPageSimple)
+    //느린 쿼리일 때만 스택을 보므로 평소 비용은 없다
+    private static String origin() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("study.querydsl.repository.")
+                        && !frame.getClassName().contains("$$"))
+                .reduce((inner, outer) -> outer)
+                .map(frame -> simpleName(frame.getClassName()) + "." + methodName(frame.getMethodName()))
+                .orElse("unknown"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) { //lambda$searchPageConcurrent$0 -> searchPageConcurrent
+            int end = method.indexOf('$', "lambda$".length());
+            return method.substring("lambda$".length(), end > 0 ? end : method.length());
+        }
+        return method;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Getter
+    public static class SlowQuery {
+        private final Instant at = Instant.now();
+        private final long elapsedMillis;
+        private final String origin;
+        private final String sql;
+        private final List<String> params;
+        private final boolean batch; //executeBatch : 여러 행을 한 번에 보내므로 params 는 비워 둔다
+        private volatile String plan; //EXPLAIN 이 끝나기 전에는 null
+
+        SlowQuery(String sql, List<Object> params, boolean batch, long elapsedNanos, String origin) {
+            this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            this.origin = origin;
+            this.sql = sql;
+            this.params = params.stream().map(SlowQuery::display).toList();
+            this.batch = batch;
+        }
+
+        private static String display(Object value) {
+            String text = String.valueOf(value);
+            return text.length() > MAX_PARAM_LENGTH ? text.substring(0, MAX_PARAM_LENGTH) + "..." : text;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package study.querydsl.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+//하이버네이트가 실행하는 SQL 수를 스레드별로 센다 (MethodMetricsAspect 에서 호출 전후 차이로 사용)
+//N+1 감지를 위해 SQL 을 NPlusOneDetector 에도 넘겨준다
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final StatementInspector delegate; //설정에 이미 등록된 inspector 가 있으면 같이 호출
+    private final NPlusOneDetector nPlusOneDetector;
+
+    public SqlStatementCounter(StatementInspector delegate, NPlusOneDetector nPlusOneDetector) {
+        this.delegate = delegate;
+        this.nPlusOneDetector = nPlusOneDetector;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        nPlusOneDetector.onStatement(sql);
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+
+    public static long current() {
+        return count.get()[0];
+    }
+}
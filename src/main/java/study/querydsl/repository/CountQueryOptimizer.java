@@ -0,0 +1,179 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathType;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//내용 조회용 JPAQuery 로부터 같은 건수를 내는 가장 싼 count 쿼리를 만든다
+//- select 절, order by, limit/offset 은 건수와 무관하므로 버린다
+//- left join 중에 to-one(ManyToOne, OneToOne) 이고 where/다른 join 에서 별칭을 쓰지 않는 것은 버린다
+//  (left join 은 행을 걸러내지 못하고, to-one 이라 행을 늘리지도 못한다)
+//- inner join, to-many left join 은 건수를 바꿀 수 있으므로 그대로 둔다
+//group by / having / distinct 쿼리는 위 규칙으로 건수가 보장되지 않아 거절한다
+@Component
+@RequiredArgsConstructor
+public class CountQueryOptimizer {
+
+    private final EntityManager em;
+
+    public JPAQuery<Long> countQuery(JPAQuery<?> contentQuery) {
+        QueryMetadata source = contentQuery.getMetadata();
+        if (!source.getGroupBy().isEmpty() || source.getHaving() != null || source.isDistinct()) {
+            throw new IllegalArgumentException("group by / having / distinct 쿼리는 count 쿼리를 유도할 수 없습니다.");
+        }
+
+        List<JoinExpression> joins = source.getJoins();
+        if (joins.isEmpty() || !(joins.get(0).getTarget() instanceof EntityPath<?> root)) {
+            throw new IllegalArgumentException("from 절이 엔티티가 아닌 쿼리는 지원하지 않습니다.");
+        }
+
+        //뒤에서부터 보면서 남길 join 을 정한다 (뒤 join 이 앞 join 별칭을 쓰면 앞 join 도 남겨야 하므로)
+        Set<Path<?>> used = new HashSet<>();
+        collect(source.getWhere(), used);
+        List<JoinExpression> kept = new ArrayList<>();
+        for (int i = joins.size() - 1; i >= 1; i--) {
+            JoinExpression join = joins.get(i);
+            if (isDroppable(join, used)) {
+                continue;
+            }
+            kept.add(0, join);
+            collect(join.getTarget(), used);
+            collect(join.getCondition(), used);
+        }
+
+        DefaultQueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addJoin(JoinType.DEFAULT, root);
+        for (JoinExpression join : kept) {
+            metadata.addJoin(join.getType(), join.getTarget());
+            if (join.getCondition() != null) {
+                metadata.addJoinCondition(join.getCondition());
+            }
+            //fetch join 플래그는 count 에 의미 없으므로 옮기지 않는다
+        }
+        if (source.getWhere() != null) {
+            metadata.addWhere(source.getWhere());
+        }
+        for (Map.Entry<ParamExpression<?>, Object> param : source.getParams().entrySet()) {
+            setParam(metadata, param.getKey(), param.getValue());
+        }
+        metadata.setProjection(Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_AGG, root));
+
+        return new JPAQuery<>(em, metadata);
+    }
+
+    private boolean isDroppable(JoinExpression join, Set<Path<?>> used) {
+        if (join.getType() != JoinType.LEFTJOIN || !(join.getTarget() instanceof Operation<?> alias)
+                || alias.getOperator() != Ops.ALIAS) {
+            return false;
+        }
+        Path<?> target = (Path<?>) alias.getArg(0); //member.team
+        Path<?> aliasPath = (Path<?>) alias.getArg(1); //team
+        return !used.contains(aliasPath) && isToOne(target);
+    }
+
+    private boolean isToOne(Path<?> path) {
+        Path<?> parent = path.getMetadata().getParent();
+        if (parent == null || path.getMetadata().getPathType() != PathType.PROPERTY) {
+            return false;
+        }
+        ManagedType<?> parentType = em.getMetamodel().managedType(parent.getType());
+        Attribute.PersistentAttributeType type =
+                parentType.getAttribute(path.getMetadata().getName()).getPersistentAttributeType();
+        return type == Attribute.PersistentAttributeType.MANY_TO_ONE
+                || type == Attribute.PersistentAttributeType.ONE_TO_ONE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setParam(DefaultQueryMetadata metadata, ParamExpression<T> param, Object value) {
+        metadata.setParam(param, (T) value);
+    }
+
+    //식에서 참조하는 경로의 루트(별칭)를 모은다
+    private static void collect(Expression<?> expression, Set<Path<?>> used) {
+        if (expression != null) {
+            expression.accept(RootCollector.INSTANCE, used);
+        }
+    }
+
+    private enum RootCollector implements Visitor<Void, Set<Path<?>>> {
+        INSTANCE;
+
+        @Override
+        public Void visit(Constant<?> expr, Set<Path<?>> used) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<Path<?>> used) {
+            expr.getArgs().forEach(arg -> collect(arg, used));
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<Path<?>> used) {
+            expr.getArgs().forEach(arg -> collect(arg, used));
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<Path<?>> used) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<Path<?>> used) {
+            used.add(expr.getRoot());
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Path<?>> used) { //상관 서브쿼리가 바깥 별칭을 쓰는 경우
+            QueryMetadata metadata = expr.getMetadata();
+            metadata.getJoins().forEach(join -> {
+                collect(join.getTarget(), used);
+                collect(join.getCondition(), used);
+            });
+            collect(metadata.getWhere(), used);
+            collect(metadata.getHaving(), used);
+            metadata.getGroupBy().forEach(group -> collect(group, used));
+            collect(metadata.getProjection(), used);
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<Path<?>> used) {
+            expr.getArgs().forEach(arg -> {
+                if (arg instanceof Expression<?> expression) {
+                    collect(expression, used);
+                }
+            });
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+//Member, Team 엔티티 리스너 (@EntityListeners)
+//MemberJpaRepository, 스프링 데이터 MemberRepository 어느 쪽으로 저장해도 여기로 들어온다
+//벌크 연산은 영속성 컨텍스트를 거치지 않으므로 리포지토리의 벌크 메서드에서 직접 무효화/갱신한다
+@Component
+@RequiredArgsConstructor
+public class MemberChangeListener {
+
+    private static final Object BULK_WRITE = new Object(); //트랜잭션 리소스 키
+
+    private final MemberCountCache memberCountCache;
+    private final MemberDataVersion memberDataVersion; //검색 응답 ETag 용 버전
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (TransactionSynchronizationManager.hasResource(BULK_WRITE)) { //bulkWrite() 에서 이미 한 번 알렸다
+            return;
+        }
+        memberCountCache.invalidateOnWrite();
+        memberDataVersion.bumpOnWrite();
+    }
+
+    //대량 적재용 (initMember) : 현재 트랜잭션의 쓰기를 건마다 알리지 않고 여기서 한 번만 알린다
+    //count 캐시 무효화 / 데이터 버전 증가는 어차피 트랜잭션 단위(커밋 시)로 반영되므로 결과는 같다
+    public void bulkWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("bulkWrite 는 트랜잭션 안에서만 사용할 수 있습니다");
+        }
+        if (TransactionSynchronizationManager.hasResource(BULK_WRITE)) {
+            return;
+        }
+        memberCountCache.invalidateOnWrite();
+        memberDataVersion.bumpOnWrite();
+        TransactionSynchronizationManager.bindResource(BULK_WRITE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BULK_WRITE);
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package study.querydsl.repository;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.springframework.util.StringUtils.hasText;
+
+//페이징 count 쿼리 결과 캐시
+//검색조건(정규화)별로 TTL + 최대 크기(LRU) 로 보관하고, Member/Team 쓰기가 일어나면 전부 무효화한다
+@Component
+public class MemberCountCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private long generation; //무효화 세대 - count 계산 도중 쓰기가 일어나면 그 결과는 저장하지 않는다
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public MemberCountCache(@Value("${member.count-cache.ttl:30s}") Duration ttl,
+                            @Value("${member.count-cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) { //accessOrder=true -> LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > MemberCountCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier countQuery) {
+        Key key = Key.of(condition);
+        long now = System.nanoTime();
+        long startGeneration;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.count;
+            }
+            if (entry != null) {
+                entries.remove(key); //TTL 만료
+            }
+            startGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        long count = countQuery.getAsLong();
+
+        //현재 트랜잭션에 아직 커밋되지 않은 쓰기가 있으면 그 트랜잭션에서만 보이는 값이므로 저장하지 않는다
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return count;
+        }
+        synchronized (this) {
+            if (generation == startGeneration) {
+                entries.put(key, new Entry(count, now));
+            }
+        }
+        return count;
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    //쓰기 시점에 바로 비우고, 트랜잭션이 끝날 때(커밋/롤백) 한 번 더 비운다
+    //그 사이에 다른 요청이 커밋 전 데이터로 채운 값이 남지 않게 하기 위함
+    public void invalidateOnWrite() {
+        invalidateAll();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE); //트랜잭션당 한 번만 등록
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCache.this);
+                invalidateAll();
+            }
+        });
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(), entries.size(), maxSize);
+    }
+
+    private record Key(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        //"" , "  " 는 조건 없음과 같은 쿼리가 되므로 같은 키로 본다
+        static Key of(MemberSearchCondition condition) {
+            return new Key(normalize(condition.getUsername()), normalize(condition.getTeamName()),
+                    condition.getAgeGoe(), condition.getAgeLoe());
+        }
+
+        private static String normalize(String value) {
+            return hasText(value) ? value : null;
+        }
+    }
+
+    private record Entry(long count, long loadedAt) {
+    }
+
+    @Getter
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+        private final int maxSize;
+        private final double hitRatio;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int size, int maxSize) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.DataVersion;
+
+import java.util.List;
+
+//Member/Team 데이터 버전 - 검색 응답 ETag 계산용
+//쓰기 트랜잭션이 커밋될 때마다 DB 의 data_version 행을 올린다 -> 로드밸런서 뒤 어느 인스턴스에서 읽어도 같은 값
+//
+//- 올리는 시점은 커밋 후(별도 트랜잭션) : 새 버전이 보이면 그 데이터도 이미 커밋돼 있다
+//  (커밋 ~ 버전 증가 사이에 읽으면 새 데이터에 옛 버전이 붙지만, 다음 폴링에서 버전이 바뀌어 다시 받으므로 안전한 쪽)
+//- 읽기는 읽기 전용 트랜잭션 -> 검색 쿼리와 같은 DB(replica)를 보므로 버전보다 오래된 데이터가 응답에 나가지 않는다
+//- 행은 시작할 때 현재 시각(ms)으로 만든다 : ddl-auto create 로 테이블이 다시 생겨도 예전 ETag 와 겹치지 않게
+//  그 뒤로는 항상 1씩 올린다 (실행 중에 행이 사라졌으면 current() 가 돌려준 0 다음인 1 부터)
+@Slf4j
+@Component
+public class MemberDataVersion implements SmartInitializingSingleton {
+
+    static final String NAME = "member";
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate newTx;
+
+    //엔티티 리스너(MemberChangeListener)가 쓰므로 EntityManagerFactory 생성 중에 만들어진다 -> JPA 빈은 지연 주입
+    public MemberDataVersion(@Lazy EntityManager em, @Lazy PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    //모든 빈(EntityManagerFactory 포함)이 만들어진 뒤 : 행이 없으면 만든다
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            newTx.executeWithoutResult(status -> {
+                if (em.find(DataVersion.class, NAME) == null) {
+                    em.persist(new DataVersion(NAME, System.currentTimeMillis()));
+                }
+            });
+        } catch (RuntimeException e) { //다른 인스턴스가 먼저 만들었거나 DB 를 못 씀 -> 첫 쓰기 때 다시 만든다
+            log.warn("데이터 버전 행 생성 실패", e);
+        }
+    }
+
+    public long current() {
+        List<Long> versions = readOnlyTx.execute(status -> em
+                .createQuery("select v.version from DataVersion v where v.name = :name", Long.class)
+                .setParameter("name", NAME)
+                .getResultList());
+        return versions == null || versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    //쓰기마다 호출되지만 트랜잭션당 한 번만 올린다 (커밋 후), 롤백되면 올리지 않는다
+    public void bumpOnWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberDataVersion.this);
+            }
+        });
+    }
+
+    //커밋은 이미 끝났으므로 실패해도 예외를 올리지 않는다 (ETag 가 다음 쓰기까지 갱신되지 않을 뿐)
+    private void bump() {
+        try {
+            increment();
+        } catch (RuntimeException first) {
+            try {
+                increment(); //다른 인스턴스가 동시에 첫 행을 만든 경우 -> 이번엔 update 로 된다
+            } catch (RuntimeException e) {
+                log.warn("데이터 버전 증가 실패 - 검색 ETag 가 갱신되지 않았습니다.", e);
+            }
+        }
+    }
+
+    private void increment() {
+        newTx.executeWithoutResult(status -> {
+            int updated = em.createQuery("update DataVersion v set v.version = v.version + 1 where v.name = :name")
+                    .setParameter("name", NAME)
+                    .executeUpdate();
+            if (updated == 0) { //실행 중에 행이 사라짐 : current() 는 0 이었으므로 1
+                em.persist(new DataVersion(NAME, 1));
+            }
+        });
+    }
+}
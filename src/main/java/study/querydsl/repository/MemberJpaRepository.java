@@ -1,12 +1,14 @@
 package study.querydsl.repository;
 
-import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberDto;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
@@ -17,6 +19,7 @@ import study.querydsl.entity.Team;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.springframework.util.StringUtils.*;
 import static study.querydsl.entity.QMember.*;
@@ -28,6 +31,9 @@ public class MemberJpaRepository {
 
     private final EntityManager em; //순수 JPA에서는 필요하다
     private  final JPAQueryFactory queryFactory; //querydsl쓰려면 필요
+    private final MemberCountCache memberCountCache;
+    private final MemberDataVersion memberDataVersion; //검색 응답 ETag 용 버전
+    private final MemberSearchQueryCache memberSearchQueryCache; //검색조건 모양별 JPQL 캐시
 
 //
 //    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory) {
@@ -39,10 +45,22 @@ public class MemberJpaRepository {
     public void save(Member member) {
         em.persist(member);
     }
+    //벌크 연산은 영속성 컨텍스트를 무시하므로 count 캐시/데이터 버전도 직접 갱신한다
+    @Transactional
+    public int bulkAgePlus(int age) {
+        int count = em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+                .setParameter("age", age)
+                .executeUpdate();
+        memberCountCache.invalidateOnWrite();
+        memberDataVersion.bumpOnWrite();
+        return count;
+    }
+
     public Optional<Member> findById(Long id) {
         Member findMember = em.find(Member.class, id);
         return Optional.ofNullable(findMember);
     }
+    @Transactional(readOnly = true) //읽기 전용 -> replica 로 라우팅
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
@@ -59,6 +77,21 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    //읽기 전용 : 엔티티 없이 DTO 로 바로 조회 (영속성 컨텍스트, 스냅샷, 프록시 모두 없음)
+    public List<MemberDto> findByUsernameDto(String username) {
+        return em.createQuery("select new study.querydsl.dto.MemberDto(m.username, m.age) from Member m where m.username = :username", MemberDto.class)
+                .setParameter("username", username)
+                .getResultList();
+    }
+
+    //읽기 전용 : 엔티티로 받지만 스냅샷을 만들지 않는다
+    public List<Member> findByUsernameReadOnly(String username) {
+        return em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
     public List<Member> findByUsername_Querydsl(String username) {
         return queryFactory
                 .selectFrom(member)
@@ -66,37 +99,20 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    //BooleanBuilder / where 파라미터 방식 모두 조건 조합이 16가지뿐이라 모양별로 미리 만든 쿼리를 재사용한다
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
-
-        BooleanBuilder builder = new BooleanBuilder();
-        if (hasText(condition.getUsername())) {
-            builder.and(member.username.eq(condition.getUsername()));
-        }
-        if (hasText(condition.getTeamName())) {
-            builder.and(team.name.eq(condition.getTeamName()));
-        }
-        if (condition.getAgeGoe() != null) {
-            builder.and(member.age.goe(condition.getAgeGoe()));
-        }
-        if (condition.getAgeLoe() != null) {
-            builder.and(member.age.loe(condition.getAgeLoe()));
-        }
-
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("TeamId"),
-                        team.name.as("temaName")))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(builder)
-                .fetch();
+        return memberSearchQueryCache.dtoQuery(condition).getResultList();
     }
 
     //회원명, 팀명, 나이(ageGoe, ageLoe)
+    @Transactional(readOnly = true) //읽기 전용 -> replica 로 라우팅
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return memberSearchQueryCache.dtoQuery(condition).getResultList();
+    }
+
+    //결과를 한 번에 List로 올리지 않고 forward-only 커서로 fetchSize 만큼씩 읽는다
+    //반드시 트랜잭션 안에서 사용하고, 다 읽은 뒤에는 close 해야 커서(ResultSet)가 닫힌다
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize) {
         return queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -110,13 +126,17 @@ public class MemberJpaRepository {
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
-                .fetch();
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
     }
+
+    //MemberSearchQueryCache 와 같은 기준 : 공백뿐인 문자열도 조건 없음
     private BooleanExpression usernameEq(String username) {
-        return isEmpty(username) ? null : member.username.eq(username);
+        return !hasText(username) ? null : member.username.eq(username);
     }
     private BooleanExpression teamNameEq(String teamName) {
-        return isEmpty(teamName) ? null : team.name.eq(teamName);
+        return !hasText(teamName) ? null : team.name.eq(teamName);
     }
     private BooleanExpression ageGoe(Integer ageGoe) {
         return ageGoe == null ? null : member.age.goe(ageGoe);
@@ -127,14 +147,17 @@ public class MemberJpaRepository {
 
     //where 파라미터 방식은 이런식으로 재사용이 가능하다.
     public List<Member> findMember(MemberSearchCondition condition) {
-        return queryFactory
-                .selectFrom(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .fetch();
+        return memberSearchQueryCache.entityQuery(condition).getResultList();
+    }
+
+    //findMember 의 읽기 전용 버전 - 조회만 할 때는 스냅샷(변경감지용 사본)을 만들지 않는다
+    public List<Member> findMemberReadOnly(MemberSearchCondition condition) {
+        return memberSearchQueryCache.readOnlyEntityQuery(condition).getResultList();
+    }
+
+    //findMember 의 DTO 버전 - 엔티티를 아예 만들지 않는다
+    public List<MemberDto> findMemberDto(MemberSearchCondition condition) {
+        return memberSearchQueryCache.memberDtoQuery(condition).getResultList();
     }
 
 }
@@ -1,6 +1,9 @@
 package study.querydsl.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import study.querydsl.entity.Member;
 
 import java.util.List;
@@ -8,4 +11,8 @@ import java.util.List;
 public interface MemberRepository extends JpaRepository<Member,Long> , MemberRepositoryCustom{ //사용자정의 리포지토리 인터페이스도 함께 상속
 
     List<Member> findByUsername(String username);
+
+    //읽기 전용 조회 : 스냅샷을 만들지 않는다
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Member> findReadOnlyByUsername(String username);
 }
@@ -2,6 +2,7 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberCursorPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 
@@ -14,5 +15,13 @@ public interface MemberRepositoryCustom {//사용자 정의 리포지토리 인
     //스프링 데이터 페이징 활용1 - Querydsl 페이징 연동
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);//페이징
 
+    //내용/count 쿼리 동시 실행 페이징
+    Page<MemberTeamDto> searchPageConcurrent(MemberSearchCondition condition, Pageable pageable);
+
+    //벌크 수정 - age 이상인 회원 나이 +1
+    long bulkAgePlus(int age);
+
+    //키셋(seek) 페이징 - offset 없이 마지막 (age, member_id) 다음부터 조회
+    MemberCursorPage searchByCursor(MemberSearchCondition condition, String cursor, int size);
 
 }
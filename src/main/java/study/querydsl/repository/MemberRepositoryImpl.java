@@ -2,17 +2,24 @@ package study.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberCursor;
+import study.querydsl.dto.MemberCursorPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.exception.BadSearchRequestException;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -22,23 +29,16 @@ import static study.querydsl.entity.QTeam.team;
 public class MemberRepositoryImpl implements MemberRepositoryCustom{//사용자정의 리포지토리 구현체
 
     private final JPAQueryFactory queryFactory;
+    private final MemberCountCache memberCountCache;
+    private final MemberDataVersion memberDataVersion; //검색 응답 ETag 용 버전
+    private final MemberSearchQueryCache memberSearchQueryCache; //검색조건 모양별 JPQL 캐시
+    private final PagedSearchExecutor pagedSearchExecutor;
+    private final CountQueryOptimizer countQueryOptimizer;
 
     @Override
+    @Transactional(readOnly = true) //읽기 전용 -> replica 로 라우팅
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("TeamId"),
-                        team.name.as("temaName")))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .fetch();
+        return memberSearchQueryCache.dtoQuery(condition).getResultList();
     }
     private BooleanExpression usernameEq(String username) {
         return !hasText(username) ? null : member.username.eq(username);
@@ -57,25 +57,12 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{//사용자
     // 1. new PageImpl<>
     // 2. PageableExecutionUtils.getPage
     @Override
+    @Transactional(readOnly = true) //읽기 전용 -> replica 로 라우팅
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
 
-        //내용 조회
-        List<MemberTeamDto> content  = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("TeamId"),
-                        team.name.as("temaName")))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
+        //내용 조회 - 모양별로 미리 만들어 둔 쿼리에 파라미터만 바인딩
+        //정렬 : username / age / teamName / memberId 만 가능, 항상 member.id 가 마지막 정렬 (같은 값끼리도 페이지가 안정적)
+        List<MemberTeamDto> content = fetchContent(condition, pageable);
 
         //count 쿼리 분리
 //        Long total = queryFactory
@@ -94,20 +81,126 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{//사용자
         Page<MemberTeamDto> result = PageableExecutionUtils.getPage(
                 content,
                 pageable,
-                () -> queryFactory
-                        .select(member.count())
-                        .from(member)
-                        .leftJoin(member.team, team)
-                        .where(
-                                usernameEq(condition.getUsername()),
-                                teamNameEq(condition.getTeamName()),
-                                ageGoe(condition.getAgeGoe()),
-                                ageLoe(condition.getAgeLoe())
-                        )
-                        .fetchOne()
+                () -> fetchCount(condition)
         );
 
         return result;
 
     }
+
+    //내용 쿼리와 count 쿼리를 동시에 실행 -> 응답 시간이 (내용 + count) 가 아니라 max(내용, count)
+    //각각 별도 스레드 / 별도 읽기 전용 트랜잭션에서 실행되므로 호출한 트랜잭션의 커밋 전 데이터는 보이지 않는다
+    //SQL 수 메트릭(app.method.sql.statements)은 스레드별 카운터라 이 메서드의 SQL 을 세지 못한다
+    @Override
+    public Page<MemberTeamDto> searchPageConcurrent(MemberSearchCondition condition, Pageable pageable) {
+        Future<List<MemberTeamDto>> contentFuture = pagedSearchExecutor.submitReadOnly(() -> fetchContent(condition, pageable));
+        Future<Long> countFuture = pagedSearchExecutor.submitReadOnly(() -> fetchCount(condition));
+
+        try {
+            List<MemberTeamDto> content = await(contentFuture);
+            //마지막 페이지처럼 내용만으로 전체 건수를 알 수 있으면 PageableExecutionUtils 가 count 를 호출하지 않는다
+            return PageableExecutionUtils.getPage(content, pageable, () -> await(countFuture));
+        } finally {
+            countFuture.cancel(true); //이미 끝났으면 아무 일도 없음, 실행 중이면 Statement.cancel 로 DB 쿼리까지 중단
+        }
+    }
+
+    private List<MemberTeamDto> fetchContent(MemberSearchCondition condition, Pageable pageable) {
+        if (pageable.getOffset() > Integer.MAX_VALUE) { //JPA setFirstResult 는 int, 그냥 자르면 엉뚱한 페이지가 나간다
+            throw new BadSearchRequestException("page * size 가 너무 큼: " + pageable.getOffset());
+        }
+        return memberSearchQueryCache.dtoQuery(condition, pageable.getSort()) //order by + limit -> 인덱스 순서대로 필요한 만큼만 읽는다
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    //count 쿼리는 검색조건별로 캐시
+    //검색 쿼리에서 유도 : 팀명 조건이 없으면 left join 은 건수에 영향이 없으므로 빠진다
+    private long fetchCount(MemberSearchCondition condition) {
+        return memberCountCache.get(condition, () -> countQueryOptimizer.countQuery(searchQuery(condition)).fetchOne());
+    }
+
+    //searchPageSimple 의 검색 쿼리 (내용은 같은 모양의 JPQL 을 MemberSearchQueryCache 로 실행)
+    private JPAQuery<MemberTeamDto> searchQuery(MemberSearchCondition condition) {
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                );
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("페이징 조회 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    //벌크 연산은 엔티티 리스너를 타지 않으므로 count 캐시/데이터 버전을 직접 갱신한다
+    @Override
+    @Transactional
+    public long bulkAgePlus(int age) {
+        long count = queryFactory
+                .update(member)
+                .set(member.age, member.age.add(1))
+                .where(member.age.goe(age))
+                .execute();
+        memberCountCache.invalidateOnWrite();
+        memberDataVersion.bumpOnWrite();
+        return count;
+    }
+
+    //offset 페이징은 앞 페이지 row를 전부 읽고 버리기 때문에 뒤로 갈수록 느려진다
+    //키셋 페이징은 (age, member_id) 기준으로 정렬하고 커서 이후부터 size+1건만 읽는다 -> 몇 번째 페이지든 비용이 같다
+    @Override
+    public MemberCursorPage searchByCursor(MemberSearchCondition condition, String cursor, int size) {
+
+        List<MemberTeamDto> content = queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("TeamId"),
+                        team.name.as("temaName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        afterCursor(cursor))
+                .orderBy(member.age.asc(), member.id.asc())
+                .limit(size + 1) //한 건 더 읽어서 다음 페이지 존재 여부 확인
+                .fetch();
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        String nextCursor = hasNext ? MemberCursor.of(content.get(content.size() - 1)).encode() : null;
+
+        return new MemberCursorPage(content, nextCursor, hasNext);
+    }
+
+    private BooleanExpression afterCursor(String cursor) {
+        if (!hasText(cursor)) {
+            return null;
+        }
+        MemberCursor last = MemberCursor.decode(cursor);
+        return member.age.gt(last.getAge())
+                .or(member.age.eq(last.getAge()).and(member.id.gt(last.getMemberId())));
+    }
 }
@@ -0,0 +1,189 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.Getter;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.util.StringUtils.hasText;
+
+//MemberSearchCondition 은 선택 조건이 4개뿐이라 쿼리 모양(shape)은 2^4 = 16가지다
+//모양별로 JPQL 을 한 번만 만들어 두고(하이버네이트도 같은 문자열이면 파싱 결과를 재사용), 요청마다 파라미터만 바인딩한다
+//정렬은 화이트리스트(MemberSearchSort)로 정규화한 값만 키에 붙으므로 모양 수는 여전히 유한하다
+//쿼리를 만드는 시간은 app.search.query-build 타이머에 result=hit(재사용)/miss(최초 생성) 로 나눠 기록 -> 두 평균의 차이가 한 번 재사용할 때 아낀 시간
+@Component
+public class MemberSearchQueryCache {
+
+    private static final int USERNAME = 1;
+    private static final int TEAM_NAME = 1 << 1;
+    private static final int AGE_GOE = 1 << 2;
+    private static final int AGE_LOE = 1 << 3;
+
+    private static final String DTO_SELECT =
+            "select new study.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name) from Member m";
+    private static final String ENTITY_SELECT =
+            "select m from Member m";
+    private static final String MEMBER_DTO_SELECT =
+            "select new study.querydsl.dto.MemberDto(m.username, m.age) from Member m";
+
+    private final EntityManager em;
+    private final ConcurrentMap<String, CompiledShape> shapes = new ConcurrentHashMap<>();
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    public MemberSearchQueryCache(EntityManager em, MeterRegistry registry) {
+        this.em = em;
+        this.hitTimer = Timer.builder("app.search.query-build").tag("result", "hit").register(registry);
+        this.missTimer = Timer.builder("app.search.query-build").tag("result", "miss").register(registry);
+    }
+
+    //회원 + 팀 DTO 조회
+    public TypedQuery<MemberTeamDto> dtoQuery(MemberSearchCondition condition) {
+        return createQuery("dto", DTO_SELECT, true, condition, null, MemberTeamDto.class);
+    }
+
+    //회원 + 팀 DTO 조회 - 정렬 (페이징용, 항상 m.id 가 마지막 정렬로 붙는다)
+    public TypedQuery<MemberTeamDto> dtoQuery(MemberSearchCondition condition, Sort sort) {
+        return createQuery("dto", DTO_SELECT, true, condition, MemberSearchSort.of(sort), MemberTeamDto.class);
+    }
+
+    //회원 엔티티 조회
+    public TypedQuery<Member> entityQuery(MemberSearchCondition condition) {
+        return createQuery("entity", ENTITY_SELECT, false, condition, null, Member.class);
+    }
+
+    //회원 DTO 조회 (엔티티 없이)
+    public TypedQuery<MemberDto> memberDtoQuery(MemberSearchCondition condition) {
+        return createQuery("memberDto", MEMBER_DTO_SELECT, false, condition, null, MemberDto.class);
+    }
+
+    //회원 엔티티 조회 - 읽기 전용 (스냅샷을 만들지 않아 변경감지/메모리 비용이 없다, 수정해도 반영 안 됨)
+    public TypedQuery<Member> readOnlyEntityQuery(MemberSearchCondition condition) {
+        return entityQuery(condition).setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    public List<ShapeStats> stats() {
+        List<ShapeStats> result = new ArrayList<>();
+        shapes.forEach((key, shape) -> result.add(new ShapeStats(key, shape)));
+        result.sort(Comparator.comparing(ShapeStats::getShape));
+        return result;
+    }
+
+    private <T> TypedQuery<T> createQuery(String kind, String select, boolean selectsTeam,
+                                          MemberSearchCondition condition, MemberSearchSort sort, Class<T> type) {
+        int shape = shapeOf(condition);
+        String key = kind + ":" + Integer.toBinaryString(shape) + (sort == null ? "" : ":" + sort.key());
+
+        CompiledShape compiled = shapes.get(key);
+        TypedQuery<T> query;
+        if (compiled == null) {
+            long start = System.nanoTime();
+            String jpql = render(select, selectsTeam, shape, sort);
+            query = em.createQuery(jpql, type); //최초 1회 파싱/해석
+            long elapsed = System.nanoTime() - start;
+            missTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            CompiledShape created = new CompiledShape(jpql, elapsed);
+            compiled = shapes.putIfAbsent(key, created);
+            if (compiled == null) {
+                compiled = created;
+            }
+        } else {
+            long start = System.nanoTime();
+            query = em.createQuery(compiled.jpql, type);
+            long elapsed = System.nanoTime() - start;
+            hitTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            compiled.reused(elapsed);
+        }
+
+        return bind(query, condition, shape);
+    }
+
+    private static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) shape |= USERNAME;
+        if (hasText(condition.getTeamName())) shape |= TEAM_NAME;
+        if (condition.getAgeGoe() != null) shape |= AGE_GOE;
+        if (condition.getAgeLoe() != null) shape |= AGE_LOE;
+        return shape;
+    }
+
+    private static String render(String select, boolean selectsTeam, int shape, MemberSearchSort sort) {
+        //팀명 조건이 있으면 어차피 팀 없는 회원은 걸러지므로 inner join -> DB가 team.name 인덱스부터 읽을 수 있다
+        //팀명 조건도 없고 팀 컬럼도 안 읽으면 조인 자체가 필요 없다
+        if ((shape & TEAM_NAME) != 0) {
+            select += " join m.team t";
+        } else if (selectsTeam) {
+            select += " left join m.team t";
+        }
+
+        List<String> predicates = new ArrayList<>();
+        if ((shape & USERNAME) != 0) predicates.add("m.username = :username");
+        if ((shape & TEAM_NAME) != 0) predicates.add("t.name = :teamName");
+        if ((shape & AGE_GOE) != 0) predicates.add("m.age >= :ageGoe");
+        if ((shape & AGE_LOE) != 0) predicates.add("m.age <= :ageLoe");
+        String jpql = predicates.isEmpty() ? select : select + " where " + String.join(" and ", predicates);
+        return sort == null ? jpql : jpql + sort.orderBy();
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, MemberSearchCondition condition, int shape) {
+        if ((shape & USERNAME) != 0) query.setParameter("username", condition.getUsername());
+        if ((shape & TEAM_NAME) != 0) query.setParameter("teamName", condition.getTeamName());
+        if ((shape & AGE_GOE) != 0) query.setParameter("ageGoe", condition.getAgeGoe());
+        if ((shape & AGE_LOE) != 0) query.setParameter("ageLoe", condition.getAgeLoe());
+        return query;
+    }
+
+    private static class CompiledShape {
+        private final String jpql;
+        private final long firstBuildNanos; //JPQL 생성 + 최초 해석 시간
+        private final AtomicLong reuseCount = new AtomicLong();
+        private final AtomicLong reuseNanos = new AtomicLong();
+
+        CompiledShape(String jpql, long firstBuildNanos) {
+            this.jpql = jpql;
+            this.firstBuildNanos = firstBuildNanos;
+        }
+
+        void reused(long nanos) {
+            reuseCount.incrementAndGet();
+            reuseNanos.addAndGet(nanos);
+        }
+    }
+
+    @Getter
+    public static class ShapeStats {
+        private final String shape;
+        private final String jpql;
+        private final long firstBuildMicros;
+        private final long reuseCount;
+        private final long avgReuseMicros;
+        private final long savedMicrosPerReuse; //측정값 차이 : 최초 생성 - 평균 재사용 (재사용이 없으면 0)
+
+        ShapeStats(String shape, CompiledShape compiled) {
+            long count = compiled.reuseCount.get();
+            long avgReuseNanos = count == 0 ? 0 : compiled.reuseNanos.get() / count;
+            this.shape = shape;
+            this.jpql = compiled.jpql;
+            this.firstBuildMicros = compiled.firstBuildNanos / 1000;
+            this.reuseCount = count;
+            this.avgReuseMicros = avgReuseNanos / 1000;
+            this.savedMicrosPerReuse = count == 0 ? 0 : Math.max(0, compiled.firstBuildNanos - avgReuseNanos) / 1000;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Sort;
+import study.querydsl.exception.BadSearchRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//검색 정렬 화이트리스트 - 인덱스 순서대로 읽을 수 있는 정렬만 허용한다
+//  username -> idx_member_username, age -> idx_member_age, memberId -> PK
+//  teamName 은 거절 - idx_team_name 은 team 쪽 인덱스라 조인된 member 행을 그 순서로 읽게 해주지 못한다 (항상 정렬 단계가 생김)
+//보조 인덱스는 PK 를 함께 가지고 있어서 (컬럼, member_id) 순서로 읽힌다
+//-> 항상 m.id 를 마지막 정렬로 붙여 페이지 경계가 흔들리지 않게 하고, 방향은 앞 정렬과 맞춰 인덱스를 거꾸로 읽기만 하면 되게 한다
+//여러 컬럼 정렬, 대소문자 무시, null 순서 지정은 받쳐주는 인덱스가 없으므로 거절 (DB 가 전체를 읽어서 정렬하게 됨)
+final class MemberSearchSort {
+
+    private static final String MEMBER_ID = "memberId";
+    private static final Map<String, String> PATHS = Map.of(
+            "username", "m.username",
+            "age", "m.age",
+            MEMBER_ID, "m.id");
+
+    private final String key;
+    private final String orderBy;
+
+    private MemberSearchSort(String key, String orderBy) {
+        this.key = key;
+        this.orderBy = orderBy;
+    }
+
+    static MemberSearchSort of(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        for (Sort.Order order : orders) {
+            if (!PATHS.containsKey(order.getProperty())) {
+                throw new BadSearchRequestException("정렬할 수 없는 항목입니다: " + order.getProperty()
+                        + " (가능: username, age, memberId)");
+            }
+            if (order.isIgnoreCase() || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                throw new BadSearchRequestException("대소문자 무시/null 순서 지정 정렬은 지원하지 않습니다: " + order.getProperty());
+            }
+        }
+
+        Sort.Order primary = null;
+        Sort.Direction idDirection;
+        if (orders.isEmpty()) {
+            idDirection = Sort.Direction.ASC;
+        } else if (orders.size() == 1 && MEMBER_ID.equals(orders.get(0).getProperty())) {
+            idDirection = orders.get(0).getDirection();
+        } else if (orders.size() == 1) {
+            primary = orders.get(0);
+            idDirection = primary.getDirection();
+        } else if (orders.size() == 2 && MEMBER_ID.equals(orders.get(1).getProperty())
+                && !MEMBER_ID.equals(orders.get(0).getProperty())) {
+            primary = orders.get(0);
+            idDirection = orders.get(1).getDirection();
+        } else {
+            throw new BadSearchRequestException("정렬은 한 항목(+ memberId)만 지원합니다: " + sort);
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<String> clauses = new ArrayList<>();
+        if (primary != null) {
+            keys.add(primary.getProperty() + "," + primary.getDirection());
+            clauses.add(PATHS.get(primary.getProperty()) + " " + primary.getDirection().name().toLowerCase());
+        }
+        keys.add(MEMBER_ID + "," + idDirection);
+        clauses.add("m.id " + idDirection.name().toLowerCase());
+
+        return new MemberSearchSort(String.join(";", keys), " order by " + String.join(", ", clauses));
+    }
+
+    //쿼리 모양 캐시 키에 붙는 정규화된 정렬
+    String key() {
+        return key;
+    }
+
+    String orderBy() {
+        return orderBy;
+    }
+}
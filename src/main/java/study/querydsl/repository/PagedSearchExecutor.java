@@ -0,0 +1,103 @@
+package study.querydsl.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.QueryDeadlineHolder;
+import study.querydsl.config.StatementCancelHandle;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+//페이징 내용/count 쿼리를 동시에 돌리기 위한 전용 스레드풀 (크기, 큐 모두 제한)
+//작업마다 별도 읽기 전용 트랜잭션 -> 스레드마다 EntityManager 도 따로 쓴다
+//큐까지 가득 차면 호출한 스레드에서 그냥 실행(CallerRuns) -> 요청이 몰려도 무한정 쌓이지 않는다
+//돌려주는 Future 의 cancel 은 실행 중인 JDBC Statement 도 취소한다 (인터럽트만으로는 DB 쿼리가 멈추지 않음)
+@Component
+public class PagedSearchExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTx;
+
+    public PagedSearchExecutor(PlatformTransactionManager transactionManager,
+                               @Value("${member.paged-search.threads:8}") int threads,
+                               @Value("${member.paged-search.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "paged-search-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        //호출한 쪽 트랜잭션과 상관없이 항상 새 트랜잭션 (CallerRuns 로 같은 스레드에서 돌 때도 분리)
+        this.readOnlyTx.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> Future<T> submitReadOnly(Supplier<T> query) {
+        Long deadline = QueryDeadlineHolder.get(); //요청 스레드의 쿼리 데드라인을 작업 스레드에도 적용
+        StatementCancelHandle handle = new StatementCancelHandle();
+        Future<T> future = executor.submit(() -> {
+            Long previous = QueryDeadlineHolder.get();
+            QueryDeadlineHolder.restore(deadline);
+            StatementCancelHandle previousHandle = StatementCancelHandle.bind(handle);
+            try {
+                return readOnlyTx.execute(status -> query.get());
+            } finally {
+                handle.finish();
+                StatementCancelHandle.restore(previousHandle);
+                QueryDeadlineHolder.restore(previous); //CallerRuns 로 요청 스레드에서 돌았을 수도 있음
+            }
+        });
+        return new CancellableQuery<>(future, handle);
+    }
+
+    private record CancellableQuery<T>(Future<T> future, StatementCancelHandle handle) implements Future<T> {
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = future.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                handle.cancel();
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
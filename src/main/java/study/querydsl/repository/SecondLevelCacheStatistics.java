@@ -0,0 +1,47 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Team;
+
+//2차 캐시 hit ratio 조회 (hibernate.generate_statistics: true 필요)
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheStatistics {
+
+    private final EntityManagerFactory emf;
+
+    public Stats team() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Team.CACHE_REGION);
+        return new Stats(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                region.getElementCountInMemory(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+    }
+
+    @Getter
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long size;
+        private final double hitRatio;
+        private final long queryCacheHits; //teamName -> teamId (TeamRepository.findIdsByName)
+        private final long queryCacheMisses;
+
+        Stats(long hits, long misses, long puts, long size, long queryCacheHits, long queryCacheMisses) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.size = size;
+            this.hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+            this.queryCacheHits = queryCacheHits;
+            this.queryCacheMisses = queryCacheMisses;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.TeamDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@Repository
+public class TeamQueryRepository {
+
+    private final JPAQueryFactory queryFactory;
+    private final int inChunkSize; //IN 절 하나에 넣는 최대 id 수
+
+    public TeamQueryRepository(JPAQueryFactory queryFactory,
+                               @Value("${team.members.in-chunk-size:500}") int inChunkSize) {
+        this.queryFactory = queryFactory;
+        this.inChunkSize = inChunkSize;
+    }
+
+    //팀 페이지 조회, withMembers 면 회원까지
+    //팀마다 team.members 를 건드리면 팀 수만큼 select(N+1) -> 팀 id 들을 IN 으로 묶어서 회원을 한 번에 조회한다
+    //쿼리 수 = 팀 1 + (count 1) + ceil(팀 수 / inChunkSize) : 페이지 크기가 커져도 거의 일정
+    public Page<TeamDto> findTeams(Pageable pageable, boolean withMembers) {
+        List<TeamDto> content = queryFactory
+                .select(Projections.constructor(TeamDto.class, team.id, team.name))
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        if (withMembers) {
+            fillMembers(content);
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> queryFactory.select(team.count()).from(team).fetchOne());
+    }
+
+    private void fillMembers(List<TeamDto> teams) {
+        Map<Long, TeamDto> byId = new LinkedHashMap<>();
+        for (TeamDto teamDto : teams) {
+            teamDto.setMembers(new ArrayList<>());
+            byId.put(teamDto.getTeamId(), teamDto);
+        }
+
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += inChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + inChunkSize, ids.size()));
+            List<Tuple> rows = queryFactory
+                    .select(member.team.id, member.username, member.age) //team.id 는 FK 컬럼이라 조인 없음
+                    .from(member)
+                    .where(member.team.id.in(chunk))
+                    .orderBy(member.id.asc())
+                    .fetch();
+            for (Tuple row : rows) {
+                byId.get(row.get(member.team.id)).getMembers()
+                        .add(new MemberDto(row.get(member.username), row.get(member.age)));
+            }
+        }
+    }
+}
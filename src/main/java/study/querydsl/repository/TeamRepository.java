@@ -0,0 +1,19 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    //teamName -> teamId : 쿼리 캐시 사용, Team 테이블에 쓰기가 생기면 하이버네이트가 자동으로 무효화
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select t.id from Team t where t.name = :name")
+    List<Long> findIdsByName(@Param("name") String name);
+}
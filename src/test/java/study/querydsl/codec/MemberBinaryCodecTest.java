@@ -0,0 +1,79 @@
+package study.querydsl.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberBinaryCodecTest {
+
+    @Test
+    public void listRoundTrip() throws Exception {
+        List<MemberTeamDto> rows = List.of(
+                new MemberTeamDto(5L, "member1", 10, 1L, "teamA"),
+                new MemberTeamDto(3L, "회원2", 20, 2L, "teamB"), //id 감소(음수 차이), 멀티바이트
+                new MemberTeamDto(7L, null, -1, 1L, "teamA"), //사전에 있는 팀 재사용
+                new MemberTeamDto(Long.MAX_VALUE, "member4", 40, null, null)); //팀 없음
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MemberBinaryCodec.writeList(rows, out);
+        MemberBinaryReader.Result result = MemberBinaryReader.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(result.paged()).isFalse();
+        assertThat(result.content()).isEqualTo(rows);
+    }
+
+    @Test
+    public void pageRoundTripIsSmallerThanJson() throws Exception {
+        List<MemberTeamDto> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new MemberTeamDto((long) i, "member" + i, i % 100, (long) (i % 2), "team" + (i % 2)));
+        }
+        PageImpl<MemberTeamDto> page = new PageImpl<>(rows, PageRequest.of(2, 1000), 10_000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MemberBinaryCodec.writePage(page, out);
+        MemberBinaryReader.Result result = MemberBinaryReader.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(result.paged()).isTrue();
+        assertThat(result.number()).isEqualTo(2);
+        assertThat(result.size()).isEqualTo(1000);
+        assertThat(result.totalElements()).isEqualTo(10_000);
+        assertThat(result.content()).isEqualTo(rows);
+        assertThat(out.size()).isLessThan(new ObjectMapper().writeValueAsBytes(rows).length / 3);
+    }
+
+    @Test
+    public void rejectNegativeCounts() throws Exception {
+        byte[] minusOne = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F}; //varint -1
+
+        ByteArrayOutputStream negativeRows = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(negativeRows);
+        data.writeInt(MemberBinaryCodec.MAGIC);
+        data.writeByte(MemberBinaryCodec.KIND_LIST);
+        data.write(minusOne);
+        assertThatThrownBy(() -> MemberBinaryReader.read(new ByteArrayInputStream(negativeRows.toByteArray())))
+                .isInstanceOf(IOException.class);
+
+        ByteArrayOutputStream negativeLength = new ByteArrayOutputStream();
+        data = new DataOutputStream(negativeLength);
+        data.writeInt(MemberBinaryCodec.MAGIC);
+        data.writeByte(MemberBinaryCodec.KIND_LIST);
+        data.writeByte(1); //1행
+        data.writeByte(2); //memberId 차이 +1 (zigzag)
+        data.write(minusOne); //username 길이
+        assertThatThrownBy(() -> MemberBinaryReader.read(new ByteArrayInputStream(negativeLength.toByteArray())))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    public void rejectAboveLimitAndBackOffOnSlowResponses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0, 0.5, registry);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse(); //한도 초과
+        assertThat(registry.get("app.concurrency.rejected").counter().count()).isEqualTo(1);
+        limiter.release();
+        limiter.release();
+
+        AdaptiveConcurrencyLimiter slow = new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 2.0, 0.5, new SimpleMeterRegistry());
+        samples(slow, 10, 1 * MS); //기준 1ms
+        assertThat(slow.getLimit()).isEqualTo(4.0);
+        samples(slow, 10, 10 * MS); //최근 중앙값이 10ms 가 되는 순간 한 번 줄이고, 10건 동안은 더 줄이지 않는다
+        assertThat(slow.getLimit()).isEqualTo(2.0);
+        assertThat(slow.getInFlight()).isZero();
+    }
+
+    @Test
+    public void failureBacksOffImmediately() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 1, 10, 2.0, 0.5, new SimpleMeterRegistry());
+        limiter.tryAcquire();
+        limiter.release(1 * MS, false);
+        limiter.tryAcquire();
+        limiter.release(1 * MS, false);
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void growSlowlyWhileSaturatedAndFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0, 0.5, new SimpleMeterRegistry());
+
+        limiter.tryAcquire(); //하나는 계속 처리 중 -> 매번 limit 까지 찬 상태
+        for (int i = 0; i < 9; i++) {
+            limiter.tryAcquire();
+            limiter.release(1 * MS, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2.0); //표본 10건이 모이기 전에는 그대로
+
+        limiter.tryAcquire();
+        limiter.release(1 * MS, true); //limit 까지 찬 상태에서 빠른 응답 -> +1/limit
+        assertThat(limiter.getLimit()).isEqualTo(2.5);
+    }
+
+    @Test
+    public void mixedLatenciesAreNotSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 10, 2.0, 0.5, new SimpleMeterRegistry());
+
+        samples(limiter, 1, 50_000); //빈 결과 한 건 : 0.05ms
+        for (int i = 0; i < 300; i++) { //페이지 크기가 섞인 평소 부하 : 1 ~ 5ms
+            samples(limiter, 1, (1 + i % 5) * MS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10.0); //한 건 때문에 평소 요청을 느리다고 보지 않는다
+
+        samples(limiter, 30, 20 * MS); //실제 과부하 : 평소의 몇 배
+        assertThat(limiter.getLimit()).isLessThan(10.0);
+    }
+
+    @Test
+    public void baselineRecoversAfterFastPhase() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 10, 2.0, 0.5, new SimpleMeterRegistry());
+
+        samples(limiter, 20, 100_000); //빈 결과만 오는 구간 : 0.1ms
+        samples(limiter, 120, 3 * MS); //평소 요청 : 처음에는 느리다고 판단하지만 빠른 구간이 창에서 밀려나면 기준이 올라온다
+        double recovered = limiter.getLimit();
+
+        samples(limiter, 50, 3 * MS);
+        assertThat(limiter.getLimit()).isEqualTo(recovered); //더 이상 줄이지 않는다
+    }
+
+    private static void samples(AdaptiveConcurrencyLimiter limiter, int count, long latencyNanos) {
+        for (int i = 0; i < count; i++) {
+            limiter.tryAcquire();
+            limiter.release(latencyNanos, true);
+        }
+    }
+}
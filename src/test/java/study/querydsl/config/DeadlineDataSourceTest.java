@@ -0,0 +1,96 @@
+package study.querydsl.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineDataSourceTest {
+
+    AtomicInteger prepared = new AtomicInteger(); //원본 커넥션까지 내려간 prepare 수 = DB 로 보낸 SQL
+    DataSource dataSource = new DeadlineDataSource(new CountingDataSource(new DriverManagerDataSource("jdbc:h2:mem:deadline")));
+
+    @AfterEach
+    public void clear() {
+        QueryDeadlineHolder.clear();
+    }
+
+    @Test
+    public void headerDeadlineSetsQueryTimeout() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(QueryDeadlineInterceptor.HEADER, "1500"); //기본값(10초)보다 짧은 헤더가 이긴다
+        new QueryDeadlineInterceptor(Duration.ofSeconds(10)).preHandle(request, new MockHttpServletResponse(), null);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            assertThat(statement.getQueryTimeout()).isEqualTo(2); //초 단위 올림
+        }
+    }
+
+    @Test
+    public void noDeadlineNoTimeout() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            assertThat(statement.getQueryTimeout()).isZero();
+        }
+    }
+
+    @Test
+    public void expiredDeadlineFailsBeforeSql() throws Exception {
+        QueryDeadlineHolder.restore(System.nanoTime() - 1);
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThatThrownBy(() -> connection.prepareStatement("select 1"))
+                    .isInstanceOf(SQLTimeoutException.class);
+        }
+        assertThat(prepared.get()).isZero();
+    }
+
+    @Test
+    public void proxyIdentity() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.equals(connection)).isTrue();
+            assertThat(connection.hashCode()).isEqualTo(connection.hashCode());
+            assertThat(connection.unwrap(Connection.class)).isSameAs(connection); //원본을 꺼내 데드라인을 우회하지 않게
+            assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+        }
+    }
+
+    private class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            prepared.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
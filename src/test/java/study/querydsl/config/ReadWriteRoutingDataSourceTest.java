@@ -0,0 +1,147 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry registry;
+    @Autowired DataSource dataSource;
+    @Autowired @Qualifier("primaryDataSource") DataSource primaryDataSource;
+    @Autowired @Qualifier("replicaDataSource") DataSource replicaDataSource;
+
+    @Test
+    public void readOnlyTransactionGoesToReplica() {
+        double replicaBefore = routed("replica");
+        double primaryBefore = routed("primary");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> em.createNativeQuery("select 1").getSingleResult());
+        assertThat(routed("replica")).isEqualTo(replicaBefore + 1);
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        readWrite.executeWithoutResult(status -> em.createNativeQuery("select 1").getSingleResult());
+        assertThat(routed("primary")).isEqualTo(primaryBefore + 1);
+    }
+
+    @Test
+    public void lastRoutedDataSourceFollowsConnection() throws Exception { //SlowQueryDataSource 가 EXPLAIN 을 보낼 곳
+        ReadWriteRoutingDataSource routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> em.createNativeQuery("select 1").getSingleResult());
+        assertThat(routing.lastRoutedDataSource()).isSameAs(replicaDataSource);
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> em.createNativeQuery("select 1").getSingleResult());
+        assertThat(routing.lastRoutedDataSource()).isSameAs(primaryDataSource);
+    }
+
+    @Test
+    public void connectionKnowsWhereItWasRouted() { //SlowQueryDataSource 는 실제 커넥션에서 EXPLAIN 대상을 읽는다
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        DataSource routed = readOnly.execute(status -> em.unwrap(Session.class).doReturningWork(connection -> {
+            connection.createStatement().close(); //LazyConnectionDataSourceProxy 가 실제 커넥션을 얻게 한다
+            return connection.unwrap(ReadWriteRoutingDataSource.RoutedConnection.class).routedDataSource();
+        }));
+        assertThat(routed).isSameAs(replicaDataSource);
+    }
+
+    @Test
+    public void onlyWritingTransactionsDelayReplica() { //조회만 한 read-write 트랜잭션은 replica 를 막지 않는다
+        Routing routing = new Routing(Duration.ofMinutes(1));
+
+        routing.readWrite.executeWithoutResult(status -> routing.jdbc.queryForObject("select 1", Integer.class));
+        routing.readOnly.executeWithoutResult(status -> routing.jdbc.queryForObject("select 1", Integer.class));
+        assertThat(routing.count("replica")).isEqualTo(1);
+        assertThat(routing.count("replica-lag-fallback")).isZero();
+
+        routing.readWrite.executeWithoutResult(status -> routing.jdbc.update("update member set age = age where 1 = 0"));
+        routing.readOnly.executeWithoutResult(status -> routing.jdbc.queryForObject("select 1", Integer.class));
+        assertThat(routing.count("replica-lag-fallback")).isEqualTo(1); //같은 스레드 : 방금 쓴 것을 읽어야 하므로 primary
+    }
+
+    @Test
+    public void writeDelaysReplicaOnlyForWritingThread() {
+        Routing routing = new Routing(Duration.ofMinutes(1));
+
+        routing.readWrite.executeWithoutResult(status -> routing.jdbc.update("update member set age = age where 1 = 0"));
+        CompletableFuture.runAsync(() -> routing.readOnly.executeWithoutResult(
+                status -> routing.jdbc.queryForObject("select 1", Integer.class))).join();
+
+        assertThat(routing.count("replica")).isEqualTo(1); //다른 스레드의 쓰기 때문에 replica 를 못 쓰지는 않는다
+        assertThat(routing.count("replica-lag-fallback")).isZero();
+    }
+
+    @Test
+    public void countsConnectionsNotLookups() throws Exception {
+        Routing routing = new Routing(Duration.ZERO);
+
+        routing.target.isWrapperFor(DataSource.class); //lookup 만 하고 커넥션은 얻지 않는다
+        routing.target.unwrap(DataSource.class);
+        assertThat(routing.count("primary") + routing.count("replica")).isZero();
+
+        routing.readOnly.executeWithoutResult(status -> {
+            routing.jdbc.queryForObject("select 1", Integer.class);
+            routing.jdbc.queryForObject("select 2", Integer.class); //같은 트랜잭션 = 같은 커넥션
+        });
+        assertThat(routing.count("replica")).isEqualTo(1);
+    }
+
+    private double routed(String route) {
+        return registry.get("app.datasource.route").tag("route", route).counter().count();
+    }
+
+    //빈과 별도로 만든 라우팅 DataSource (maxLag 를 테스트마다 다르게, 카운터도 따로)
+    private class Routing {
+
+        final MeterRegistry meters = new SimpleMeterRegistry();
+        final ReadWriteRoutingDataSource target;
+        final JdbcTemplate jdbc;
+        final TransactionTemplate readWrite;
+        final TransactionTemplate readOnly;
+
+        Routing(Duration maxLag) {
+            target = new ReadWriteRoutingDataSource(maxLag, meters);
+            target.setTargetDataSources(Map.of(
+                    ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                    ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+            target.setDefaultTargetDataSource(primaryDataSource);
+            target.afterPropertiesSet();
+            DataSource lazy = new LazyConnectionDataSourceProxy(target);
+            DataSourceTransactionManager txManager = new DataSourceTransactionManager(lazy);
+            jdbc = new JdbcTemplate(lazy);
+            readWrite = new TransactionTemplate(txManager);
+            readOnly = new TransactionTemplate(txManager);
+            readOnly.setReadOnly(true);
+        }
+
+        double count(String route) {
+            return meters.get("app.datasource.route").tag("route", route).counter().count();
+        }
+    }
+}
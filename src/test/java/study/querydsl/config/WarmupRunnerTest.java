@@ -0,0 +1,81 @@
+package study.querydsl.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.page-sizes=5",
+        "app.warmup.min-rounds=2",
+        "app.warmup.settle-rounds=1",
+        "app.warmup.max-duration=30s"
+})
+class WarmupRunnerTest {
+
+    @Autowired WarmupRunner warmupRunner;
+
+    @Test
+    public void warmupFinishesBeforeReadiness() {
+        assertThat(warmupRunner).isNotNull();
+        //ACCEPTING_TRAFFIC 시점에 이미 워밍업 쿼리가 실행돼 있어야 한다 (모양 16가지 x (v1 + v2) x 최소 2라운드)
+        assertThat(ReadinessProbe.queriesWhenReady).isGreaterThanOrEqualTo(16 * 2 * 2);
+    }
+
+    @Test
+    public void failureDoesNotAbortStartup() {
+        PlatformTransactionManager unavailable = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                throw new CannotCreateTransactionException("DB 연결 불가");
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+        WarmupRunner runner = new WarmupRunner(null, null, new ObjectMapper(), unavailable,
+                "member1", "teamA", 10, 40, new int[]{20}, Duration.ofSeconds(5), 20, 5, 0.1);
+
+        assertThatCode(() -> runner.run(null)).doesNotThrowAnyException();
+    }
+
+    @TestConfiguration
+    static class ReadinessProbe {
+
+        static volatile long queriesWhenReady = -1;
+
+        private final EntityManagerFactory emf;
+
+        ReadinessProbe(EntityManagerFactory emf) {
+            this.emf = emf;
+        }
+
+        @EventListener
+        public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                queriesWhenReady = emf.unwrap(SessionFactory.class).getStatistics().getQueryExecutionCount();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.controller;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.exception.BadSearchRequestException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ApiExceptionHandlerTest {
+
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new ApiExceptionHandler())
+            .build();
+
+    @Test
+    public void queryTimeoutIs503() throws Exception {
+        mockMvc.perform(get("/timeout"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("QUERY_DEADLINE_EXCEEDED"));
+    }
+
+    @Test
+    public void badSearchRequestIs400() throws Exception {
+        mockMvc.perform(get("/bad-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+    }
+
+    @Test
+    public void otherIllegalArgumentIsNot400() { //코드 버그는 400 으로 숨기지 않는다
+        assertThatThrownBy(() -> mockMvc.perform(get("/bug")))
+                .isInstanceOf(ServletException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/timeout")
+        public String timeout() {
+            throw new QueryTimeoutException("데드라인 초과");
+        }
+
+        @GetMapping("/bad-cursor")
+        public String badCursor() {
+            throw new BadSearchRequestException("잘못된 커서입니다: x");
+        }
+
+        @GetMapping("/bug")
+        public String bug() {
+            throw new IllegalArgumentException("버그");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.controller;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberCountCache;
+import study.querydsl.repository.MemberDataVersion;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "seed.members=" + InitMemberServiceTest.MEMBERS,
+        "seed.teams=3",
+        "seed.batch-size=4",
+        "seed.commit-interval=" + InitMemberServiceTest.COMMIT_INTERVAL
+})
+class InitMemberServiceTest {
+
+    static final int MEMBERS = 25;
+    static final int COMMIT_INTERVAL = 10;
+
+    @Autowired initMember.InitMemberService initMemberService;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberCountCache memberCountCache;
+    @Autowired MemberDataVersion memberDataVersion;
+
+    private Long lastTeamIdBefore;
+
+    @AfterEach
+    public void cleanUp() { //청크마다 커밋되므로 적재한 팀/회원을 직접 지운다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.team.id > :id").setParameter("id", lastTeamIdBefore).executeUpdate();
+            em.createQuery("delete from Team t where t.id > :id").setParameter("id", lastTeamIdBefore).executeUpdate();
+        });
+    }
+
+    @Test
+    public void seedsInChunksAndNotifiesOncePerCommit() {
+        lastTeamIdBefore = lastTeamId();
+        long versionBefore = memberDataVersion.current();
+        assertThat(versionBefore).as("버전 행은 시작할 때 만들어진다 - 차이가 커밋 수만 세도록").isPositive();
+        long invalidationsBefore = memberCountCache.stats().getInvalidations();
+
+        initMemberService.init();
+
+        List<Member> members = new TransactionTemplate(transactionManager).execute(status -> em
+                .createQuery("select m from Member m join fetch m.team t where t.id > :id order by m.id", Member.class)
+                .setParameter("id", lastTeamIdBefore)
+                .getResultList());
+        assertThat(members).hasSize(MEMBERS);
+        assertThat(members).extracting(Member::getUsername).startsWith("member0", "member1", "member2").endsWith("member24");
+        assertThat(members.get(4).getAge()).isEqualTo(4); //sequential
+        assertThat(members).extracting(member -> member.getTeam().getName())
+                .startsWith("teamA", "teamB", "teamC", "teamA"); //i % teams
+
+        //커밋 : 팀 1번 + 회원 청크 ceil(25 / 10) = 3번 -> 회원 건수(25)가 아니라 커밋마다 한 번씩
+        int commits = 1 + (MEMBERS + COMMIT_INTERVAL - 1) / COMMIT_INTERVAL;
+        assertThat(memberDataVersion.current() - versionBefore).isEqualTo(commits);
+        //invalidateOnWrite : 트랜잭션 시작 시 + 끝날 때 두 번
+        assertThat(memberCountCache.stats().getInvalidations() - invalidationsBefore).isEqualTo(2L * commits);
+    }
+
+    private Long lastTeamId() {
+        return new TransactionTemplate(transactionManager).execute(status -> em
+                .createQuery("select coalesce(max(t.id), 0) from Team t", Long.class)
+                .getSingleResult());
+    }
+}
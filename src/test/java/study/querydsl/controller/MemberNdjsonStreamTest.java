@@ -0,0 +1,90 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "member.stream.flush-every=2") //중간 flush 경로도 타게
+@AutoConfigureMockMvc
+class MemberNdjsonStreamTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired MeterRegistry registry;
+
+    @AfterEach
+    public void cleanUp() { //스트리밍은 별도 스레드 / 별도 트랜잭션이라 커밋한 데이터만 보인다 -> 직접 지운다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'stream%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'streamTeam%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void streamNdjson() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team teamA = new Team("streamTeamA");
+            Team teamB = new Team("streamTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Member("stream" + i, 20 + i, teamA));
+            }
+            em.persist(new Member("stream-other", 30, teamB));
+        });
+        double replicaBefore = routed("replica");
+
+        MvcResult started = mockMvc.perform(get("/v1/members/stream")
+                        .param("teamName", "streamTeamA")
+                        .param("ageGoe", "21"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        //한 줄에 JSON 하나, 마지막 줄도 개행으로 끝난다
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        List<String> usernames = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.get("teamName").asText()).isEqualTo("streamTeamA");
+            assertThat(row.get("age").asInt()).isGreaterThanOrEqualTo(21);
+            usernames.add(row.get("username").asText());
+        }
+        assertThat(usernames).containsExactlyInAnyOrder("stream1", "stream2", "stream3", "stream4");
+
+        //읽기 전용 트랜잭션 -> replica 로 라우팅
+        assertThat(routed("replica")).isGreaterThan(replicaBefore);
+    }
+
+    private double routed(String route) {
+        return registry.get("app.datasource.route").tag("route", route).counter().count();
+    }
+}
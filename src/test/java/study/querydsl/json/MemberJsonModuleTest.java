@@ -0,0 +1,59 @@
+package study.querydsl.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberJsonModuleTest {
+
+    ObjectMapper defaultMapper = new ObjectMapper();
+    ObjectMapper specializedMapper = new ObjectMapper().registerModule(new MemberJsonModule());
+
+    @Test
+    public void sameOutputAsBeanSerializer() throws Exception {
+        List<Object> values = List.of(
+                new MemberTeamDto(1L, "member1", 10, 2L, "teamA"),
+                new MemberTeamDto(3L, "member\"2\"", 20, null, null), //팀 없는 회원, 이스케이프
+                new MemberDto("member3", 30));
+
+        for (Object value : values) {
+            assertThat(specializedMapper.writeValueAsString(value))
+                    .isEqualTo(defaultMapper.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    public void compactPage() throws Exception {
+        PageImpl<MemberTeamDto> page = new PageImpl<>(
+                List.of(new MemberTeamDto(1L, "member1", 10, 2L, "teamA")), PageRequest.of(1, 1), 3);
+
+        JsonNode json = specializedMapper.readTree(specializedMapper.writeValueAsString(page));
+
+        assertThat(json.get("content").get(0).get("username").asText()).isEqualTo("member1");
+        assertThat(json.get("page").get("size").asInt()).isEqualTo(1);
+        assertThat(json.get("page").get("number").asInt()).isEqualTo(1);
+        assertThat(json.get("page").get("totalElements").asLong()).isEqualTo(3);
+        assertThat(json.get("page").get("totalPages").asInt()).isEqualTo(3);
+        assertThat(json.has("pageable")).isFalse();
+    }
+
+    @Test
+    public void timeOrderedIdsAsStrings() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new MemberJsonModule(true));
+        long id = (1L << 53) + 1; //double 로는 표현 못 하는 값
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(new MemberTeamDto(id, "member1", 10, null, null)));
+
+        assertThat(json.get("memberId").isTextual()).isTrue();
+        assertThat(json.get("memberId").asText()).isEqualTo(Long.toString(id));
+        assertThat(json.get("teamId").isNull()).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package study.querydsl.metrics;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class NPlusOneDetectorTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void lazyTeamLoadingInLoop() {//fetchJoinNo 를 여러 건에 대해 반복하면 팀 수만큼 select 가 나간다
+        for (int i = 0; i < 10; i++) {
+            Team team = new Team("nPlusOneTeam" + i);
+            em.persist(team);
+            em.persist(new Member("nPlusOneMember" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+
+        List<Member> members = em.createQuery("select m from Member m where m.username like 'nPlusOneMember%'", Member.class)
+                .getResultList();
+
+        //테스트 설정 : threshold 5, mode fail
+        assertThatThrownBy(() -> members.forEach(member -> member.getTeam().getName()))
+                .hasStackTraceContaining("N+1")
+                .hasStackTraceContaining("Member.team");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) //세션이 실제로 닫히는 것을 보려고 테스트 트랜잭션 없이 실행
+    public void contextClearedWhenSessionCloses() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long memberId = tx.execute(status -> {
+            Team team = new Team("nPlusOneCloseTeam");
+            em.persist(team);
+            Member member = new Member("nPlusOneCloseMember", 10, team);
+            em.persist(member);
+            return member.getId();
+        });
+        try {
+            tx.executeWithoutResult(status -> {
+                em.find(Member.class, memberId).getTeam().getName(); //LAZY 로딩 -> 컨텍스트 생성
+                assertThat(NPlusOneDetector.hasContext()).isTrue();
+            });
+            assertThat(NPlusOneDetector.hasContext()).isFalse(); //세션 종료와 함께 스레드 로컬도 비워진다
+        } finally {
+            tx.executeWithoutResult(status -> {
+                em.createQuery("delete from Member m where m.id = :id").setParameter("id", memberId).executeUpdate();
+                em.createQuery("delete from Team t where t.name = 'nPlusOneCloseTeam'").executeUpdate();
+            });
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.slow-query.threshold=0ms") //모든 문장을 느린 쿼리로 기록
+class SlowQueryLogTest {
+
+    @Autowired SlowQueryLog slowQueryLog;
+    @Autowired MemberJpaRepository memberJpaRepository;
+
+    @BeforeEach
+    public void before() {
+        slowQueryLog.clear();
+    }
+
+    @Test
+    public void recordParamsOriginAndPlan() throws InterruptedException {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(35);
+
+        memberJpaRepository.search(condition);
+
+        List<SlowQueryLog.SlowQuery> entries = slowQueryLog.entries();
+        assertThat(entries).isNotEmpty();
+        SlowQueryLog.SlowQuery slowQuery = entries.get(0);
+        assertThat(slowQuery.getOrigin()).isEqualTo("MemberJpaRepository.search");
+        assertThat(slowQuery.getSql()).containsIgnoringCase("select");
+        assertThat(slowQuery.getParams()).containsExactly("35");
+
+        //EXPLAIN 은 별도 스레드에서 채워진다
+        for (int i = 0; i < 50 && slowQuery.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(slowQuery.getPlan()).isNotBlank().doesNotStartWith("EXPLAIN 실패");
+    }
+}
@@ -0,0 +1,110 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class CountQueryOptimizerTest {
+
+    @Autowired EntityManager em;
+    @Autowired JPAQueryFactory queryFactory;
+    @Autowired CountQueryOptimizer countQueryOptimizer;
+    @Autowired MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 20; i++) {
+            Team team = i % 3 == 0 ? null : (i % 3 == 1 ? teamA : teamB); //팀 없는 회원 포함
+            em.persist(new Member(i % 2 == 0 ? "member1" : "member" + i, i * 5, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @AfterEach
+    public void after() {
+        RecordingStatementInspector.stop();
+    }
+
+    @Test
+    public void sameCountAsNaiveQueryForEveryConditionShape() {
+        for (int shape = 0; shape < 16; shape++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            if ((shape & 1) != 0) condition.setUsername("member1");
+            if ((shape & 2) != 0) condition.setTeamName("teamA");
+            if ((shape & 4) != 0) condition.setAgeGoe(20);
+            if ((shape & 8) != 0) condition.setAgeLoe(70);
+
+            Long naive = queryFactory
+                    .select(member.count())
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(where(condition))
+                    .fetchOne();
+
+            //실제 검색(searchPageSimple) 경로로 확인 : 2번째 페이지(크기 1)는 내용과 상관없이 항상 count 를 실행한다
+            RecordingStatementInspector.start();
+            long total = memberRepository.searchPageSimple(condition, PageRequest.of(1, 1)).getTotalElements();
+
+            assertThat(total).as("shape %s", Integer.toBinaryString(shape)).isEqualTo(naive);
+            //팀명 조건이 없으면 join 이 빠진다
+            String sql = countSql();
+            assertThat(sql.contains(" join ")).as(sql).isEqualTo((shape & 2) != 0);
+            assertThat(sql).doesNotContain("order by");
+        }
+    }
+
+    @Test
+    public void rejectGroupBy() {
+        JPAQuery<Long> grouped = queryFactory
+                .select(member.count())
+                .from(member)
+                .groupBy(member.age);
+
+        assertThatThrownBy(() -> countQueryOptimizer.countQuery(grouped))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String countSql() {
+        List<String> counts = RecordingStatementInspector.statements().stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.contains("count("))
+                .toList();
+        assertThat(counts).as("count 쿼리는 한 번").hasSize(1);
+        return counts.get(0);
+    }
+
+    private BooleanExpression[] where(MemberSearchCondition condition) {
+        return new BooleanExpression[]{
+                hasText(condition.getUsername()) ? member.username.eq(condition.getUsername()) : null,
+                hasText(condition.getTeamName()) ? team.name.eq(condition.getTeamName()) : null,
+                condition.getAgeGoe() != null ? member.age.goe(condition.getAgeGoe()) : null,
+                condition.getAgeLoe() != null ? member.age.loe(condition.getAgeLoe()) : null
+        };
+    }
+}
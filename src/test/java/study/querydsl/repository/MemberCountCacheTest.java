@@ -0,0 +1,50 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    @Test
+    public void hitAndInvalidate() {
+        MemberCountCache cache = new MemberCountCache(Duration.ofMinutes(1), 10);
+        AtomicInteger queryCount = new AtomicInteger();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        MemberSearchCondition same = new MemberSearchCondition();
+        same.setTeamName("teamA");
+        same.setUsername(""); //빈 문자열은 조건 없음과 같다
+
+        assertThat(cache.get(condition, () -> { queryCount.incrementAndGet(); return 2L; })).isEqualTo(2L);
+        assertThat(cache.get(same, () -> { queryCount.incrementAndGet(); return 2L; })).isEqualTo(2L);
+        assertThat(queryCount.get()).isEqualTo(1);
+
+        cache.invalidateAll();
+        assertThat(cache.get(condition, () -> { queryCount.incrementAndGet(); return 3L; })).isEqualTo(3L);
+        assertThat(queryCount.get()).isEqualTo(2);
+
+        MemberCountCache.Stats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void lruEviction() {
+        MemberCountCache cache = new MemberCountCache(Duration.ofMinutes(1), 2);
+
+        for (int age = 0; age < 3; age++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setAgeGoe(age);
+            cache.get(condition, () -> 1L);
+        }
+
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberDataVersionTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberDataVersion memberDataVersion;
+
+    @AfterEach
+    public void cleanUp() { //커밋된 데이터라 다른 테스트에 보이지 않게 지운다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> em
+                .createQuery("delete from Member m where m.username like 'version%'")
+                .executeUpdate());
+    }
+
+    @Test
+    public void bumpOncePerCommittedTransaction() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = memberDataVersion.current();
+
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("version1", 10));
+            em.persist(new Member("version2", 20));
+            assertThat(memberDataVersion.current()).isEqualTo(start); //커밋 전에는 그대로
+        });
+        assertThat(memberDataVersion.current()).isEqualTo(start + 1); //트랜잭션당 한 번
+
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("version3", 30));
+            status.setRollbackOnly();
+        });
+        assertThat(memberDataVersion.current()).isEqualTo(start + 1); //롤백은 올리지 않음
+    }
+
+    @Test
+    public void sharedThroughDatabase() {
+        long before = memberDataVersion.current();
+
+        //다른 인스턴스의 쓰기 = DB 행만 바뀜
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> em
+                .createQuery("update DataVersion v set v.version = v.version + 1 where v.name = :name")
+                .setParameter("name", MemberDataVersion.NAME)
+                .executeUpdate());
+
+        assertThat(memberDataVersion.current()).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void seededAtStartupAndIncrementedByOne() {
+        long seeded = memberDataVersion.current();
+        assertThat(seeded).isPositive(); //시작할 때 만든 행
+
+        memberDataVersion.bumpOnWrite(); //트랜잭션 밖 : 바로 증가
+        assertThat(memberDataVersion.current()).isEqualTo(seeded + 1);
+
+        //행이 사라져도(스키마 재생성) current() 와 증가가 같은 값에서 이어진다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> em
+                .createQuery("delete from DataVersion v where v.name = :name")
+                .setParameter("name", MemberDataVersion.NAME)
+                .executeUpdate());
+        assertThat(memberDataVersion.current()).isZero();
+        memberDataVersion.bumpOnWrite();
+        assertThat(memberDataVersion.current()).isEqualTo(1);
+    }
+}
@@ -2,10 +2,12 @@ package study.querydsl.repository;
 
 import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
@@ -90,5 +92,49 @@ class MemberJpaRepositoryTest {
 //        assertThat(result).extracting("username").containsExactly("member3", "member4");
     }
 
+    @Test
+    public void readOnlyPathsSkipDirtyChecking() {//읽기 전용 조회는 스냅샷이 없어서 값을 바꿔도 flush 되지 않는다
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+        em.clear();
+
+        Session session = em.unwrap(Session.class);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        Member byUsername = memberJpaRepository.findByUsernameReadOnly("member1").get(0);
+        List<Member> byCondition = memberJpaRepository.findMemberReadOnly(condition);
+        assertThat(session.isReadOnly(byUsername)).isTrue();
+        assertThat(byCondition).allMatch(session::isReadOnly);
+
+        byUsername.setAge(99);
+        byCondition.forEach(m -> m.setUsername("changed"));
+        em.flush();
+        em.clear();
+
+        assertThat(memberJpaRepository.findByUsername("member1")).extracting("age").containsExactly(10);
+        assertThat(memberJpaRepository.findByUsername("changed")).isEmpty();
+    }
+
+    @Test
+    public void dtoPathLeavesPersistenceContextEmpty() {//DTO 조회는 엔티티를 만들지 않으므로 영속성 컨텍스트에 아무것도 남지 않는다
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        List<MemberDto> result = memberJpaRepository.findMemberDto(condition);
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
 
 }
\ No newline at end of file
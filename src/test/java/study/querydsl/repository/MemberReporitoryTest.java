@@ -6,16 +6,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberCursorPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.exception.BadSearchRequestException;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -98,5 +102,72 @@ class MemberReporitoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1","member2","member3");
     }
 
+    @Test
+    public void searchByCursor() {//키셋 페이징
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 20, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(40);
+
+        MemberCursorPage first = memberRepository.searchByCursor(condition, null, 2);
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(first.isHasNext()).isTrue();
 
-}
\ No newline at end of file
+        //같은 age(20)에서도 member_id로 이어서 조회된다
+        MemberCursorPage second = memberRepository.searchByCursor(condition, first.getNextCursor(), 2);
+        assertThat(second.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void searchPageSorted() {//정렬 + member_id 타이브레이커
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 20, teamB));
+        em.persist(new Member("member2", 30, teamA));
+        em.persist(new Member("member3", 20, teamA));
+        em.persist(new Member("member4", 10, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        //같은 age(20)는 member_id 순서 (방향은 앞 정렬을 따라감)
+        Page<MemberTeamDto> byAgeDesc = memberRepository.searchPageSimple(condition, PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age")));
+        assertThat(byAgeDesc.getContent()).extracting("username").containsExactly("member2", "member3", "member1");
+
+        //인덱스가 없는 정렬은 거절 (리포지토리 예외 변환 대상이 아니라 그대로 -> ApiExceptionHandler 에서 400)
+        //teamName : team 인덱스로는 member 를 팀명 순서로 읽을 수 없다
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(condition, PageRequest.of(0, 4, Sort.by("teamName"))))
+                .isInstanceOf(BadSearchRequestException.class);
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(condition, PageRequest.of(0, 3, Sort.by("teamId"))))
+                .isInstanceOf(BadSearchRequestException.class);
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(condition, PageRequest.of(0, 3, Sort.by("age", "username"))))
+                .isInstanceOf(BadSearchRequestException.class);
+    }
+
+    @Test
+    public void searchPageOffsetOverflow() {//offset 이 int 범위를 넘으면 잘라서 조회하지 않고 거절
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(condition, PageRequest.of(Integer.MAX_VALUE, 10)))
+                .isInstanceOf(BadSearchRequestException.class);
+    }
+}
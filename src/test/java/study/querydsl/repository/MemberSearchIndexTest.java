@@ -0,0 +1,102 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//검색조건 모양(shape)별로 실제 생성된 SQL 을 H2 EXPLAIN 으로 확인 -> full scan(tableScan) 이면 실패
+//조건이 하나도 없는 모양(전체 조회)은 원래 전체를 읽는 쿼리이므로 제외
+@SpringBootTest
+@Transactional
+class MemberSearchIndexTest {
+
+    @Autowired EntityManager em;
+    @Autowired MemberSearchQueryCache memberSearchQueryCache;
+
+    @BeforeEach
+    public void before() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teams.add(team);
+        }
+        for (int i = 0; i < 1000; i++) {
+            em.persist(new Member("member" + i, i % 100, teams.get(i % 10)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @AfterEach
+    public void after() {
+        RecordingStatementInspector.stop();
+    }
+
+    @Test
+    public void everySearchShapeUsesIndex() {
+        List<String> fullScans = new ArrayList<>();
+
+        for (int shape = 1; shape < 16; shape++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            List<Object> params = new ArrayList<>(); //SQL 파라미터 순서 : username, teamName, ageGoe, ageLoe
+            if ((shape & 1) != 0) { condition.setUsername("member1"); params.add("member1"); }
+            if ((shape & 2) != 0) { condition.setTeamName("team1"); params.add("team1"); }
+            if ((shape & 4) != 0) { condition.setAgeGoe(90); params.add(90); }
+            if ((shape & 8) != 0) { condition.setAgeLoe(95); params.add(95); }
+
+            RecordingStatementInspector.start();
+            memberSearchQueryCache.dtoQuery(condition).getResultList();
+            String sql = lastSelect();
+
+            String plan = explain(sql, params);
+            if (plan.toLowerCase().contains("tablescan")) {
+                fullScans.add(condition + "\n" + plan);
+            }
+        }
+
+        assertThat(fullScans).as("full scan 이 발생한 검색조건").isEmpty();
+    }
+
+    private String lastSelect() {
+        List<String> statements = RecordingStatementInspector.statements();
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            if (statements.get(i).toLowerCase().contains("select")) {
+                return statements.get(i);
+            }
+        }
+        throw new IllegalStateException("실행된 select 가 없습니다");
+    }
+
+    private String explain(String sql, List<Object> params) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
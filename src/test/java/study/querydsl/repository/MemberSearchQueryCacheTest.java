@@ -0,0 +1,42 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSearchQueryCacheTest {
+
+    @Autowired EntityManager em;
+
+    @Test
+    public void buildTimeRecordedAsHitAndMiss() {
+        MeterRegistry registry = new SimpleMeterRegistry(); //빈과 별도 - 모양 캐시가 비어 있는 상태에서 시작
+        MemberSearchQueryCache cache = new MemberSearchQueryCache(em, registry);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        cache.dtoQuery(condition).getResultList();
+        cache.dtoQuery(condition).getResultList();
+        condition.setTeamName("teamB"); //값만 다르면 같은 모양
+        cache.dtoQuery(condition).getResultList();
+
+        assertThat(registry.get("app.search.query-build").tag("result", "miss").timer().count()).isEqualTo(1);
+        assertThat(registry.get("app.search.query-build").tag("result", "hit").timer().count()).isEqualTo(2);
+
+        List<MemberSearchQueryCache.ShapeStats> stats = cache.stats();
+        assertThat(stats).hasSize(1);
+        assertThat(stats.get(0).getReuseCount()).isEqualTo(2);
+        assertThat(stats.get(0).getSavedMicrosPerReuse()).isBetween(0L, stats.get(0).getFirstBuildMicros());
+    }
+}
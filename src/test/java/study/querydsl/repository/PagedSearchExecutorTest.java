@@ -0,0 +1,98 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PagedSearchExecutorTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberRepository memberRepository;
+
+    @AfterEach
+    public void cleanUp() { //작업 스레드는 별도 트랜잭션이라 커밋한 데이터만 보인다 -> 직접 지운다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'paged%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'pagedTeam%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void concurrentSameAsSimple() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team teamA = new Team("pagedTeamA");
+            Team teamB = new Team("pagedTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 7; i++) {
+                em.persist(new Member("paged" + i, 20 + i, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("pagedTeamA");
+        PageRequest pageable = PageRequest.of(0, 2);
+
+        Page<MemberTeamDto> simple = memberRepository.searchPageSimple(condition, pageable);
+        Page<MemberTeamDto> concurrent = memberRepository.searchPageConcurrent(condition, pageable);
+
+        assertThat(concurrent.getTotalElements()).isEqualTo(simple.getTotalElements()).isEqualTo(4);
+        assertThat(concurrent.getContent()).extracting("memberId")
+                .containsExactlyElementsOf(simple.getContent().stream().map(MemberTeamDto::getMemberId).toList());
+    }
+
+    @Test
+    public void callerRunsWhenSaturated() throws Exception {
+        PagedSearchExecutor executor = new PagedSearchExecutor(transactionManager, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<String> running = executor.submitReadOnly(() -> { //스레드 1개를 잡고 있는다
+                awaitQuietly(release);
+                return Thread.currentThread().getName();
+            });
+            Future<String> queued = executor.submitReadOnly(() -> Thread.currentThread().getName()); //큐 1칸
+
+            String caller = Thread.currentThread().getName();
+            Future<Boolean> overflow = executor.submitReadOnly( //스레드/큐 모두 가득 -> 호출 스레드에서 바로 실행
+                    () -> caller.equals(Thread.currentThread().getName())
+                            && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+
+            assertThat(overflow.isDone()).isTrue();
+            assertThat(overflow.get()).isTrue();
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("paged-search-");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("paged-search-");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
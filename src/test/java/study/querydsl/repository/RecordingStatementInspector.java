@@ -0,0 +1,36 @@
+package study.querydsl.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//테스트용 : 하이버네이트가 실행하는 SQL 을 기록 (hibernate.session_factory.statement_inspector)
+//모든 테스트의 SQL 이 지나가므로 start() ~ stop() 사이에만 기록한다 (그 외에는 쌓지 않는다)
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> recording = statements.get();
+        if (recording != null) {
+            recording.add(sql);
+        }
+        return sql;
+    }
+
+    //기록 시작 (이전 기록은 버린다)
+    public static void start() {
+        statements.set(new ArrayList<>());
+    }
+
+    public static List<String> statements() {
+        List<String> recording = statements.get();
+        return recording != null ? recording : List.of();
+    }
+
+    public static void stop() {
+        statements.remove();
+    }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SecondLevelCacheStatisticsTest {
+
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired SecondLevelCacheStatistics secondLevelCacheStatistics;
+    @Autowired TeamRepository teamRepository;
+
+    private Long teamId;
+
+    @AfterEach
+    public void cleanUp() { //2차 캐시는 트랜잭션이 나뉘어야 보이므로 커밋된 팀을 지운다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> em
+                .createQuery("delete from Team t where t.id = :id")
+                .setParameter("id", teamId)
+                .executeUpdate());
+    }
+
+    @Test
+    public void teamHitAndMiss() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        teamId = tx.execute(status -> {
+            Team team = new Team("cacheTeam");
+            em.persist(team);
+            return team.getId();
+        });
+        emf.getCache().evict(Team.class); //insert 시 들어간 항목을 비워 첫 조회를 miss 로 만든다
+
+        SecondLevelCacheStatistics.Stats before = secondLevelCacheStatistics.team();
+
+        //영속성 컨텍스트(1차 캐시)를 피하려고 트랜잭션마다 새로 조회
+        tx.executeWithoutResult(status -> assertThat(em.find(Team.class, teamId).getName()).isEqualTo("cacheTeam"));
+        SecondLevelCacheStatistics.Stats afterMiss = secondLevelCacheStatistics.team();
+        assertThat(afterMiss.getMisses() - before.getMisses()).isEqualTo(1);
+        assertThat(afterMiss.getPuts() - before.getPuts()).isEqualTo(1);
+        assertThat(afterMiss.getHits() - before.getHits()).isZero();
+
+        tx.executeWithoutResult(status -> assertThat(em.find(Team.class, teamId).getName()).isEqualTo("cacheTeam"));
+        SecondLevelCacheStatistics.Stats afterHit = secondLevelCacheStatistics.team();
+        assertThat(afterHit.getHits() - afterMiss.getHits()).isEqualTo(1);
+        assertThat(afterHit.getMisses() - afterMiss.getMisses()).isZero();
+        assertThat(afterHit.getHitRatio()).isGreaterThan(0.0);
+    }
+
+    @Test
+    public void teamIdLookupHitAndMiss() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        teamId = tx.execute(status -> {
+            Team team = new Team("cacheLookupTeam");
+            em.persist(team);
+            return team.getId();
+        });
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegions(); //앞선 테스트의 결과가 남지 않게
+
+        SecondLevelCacheStatistics.Stats before = secondLevelCacheStatistics.team();
+
+        assertThat(teamRepository.findIdsByName("cacheLookupTeam")).containsExactly(teamId);
+        SecondLevelCacheStatistics.Stats afterMiss = secondLevelCacheStatistics.team();
+        assertThat(afterMiss.getQueryCacheMisses() - before.getQueryCacheMisses()).isEqualTo(1);
+        assertThat(afterMiss.getQueryCacheHits() - before.getQueryCacheHits()).isZero();
+
+        assertThat(teamRepository.findIdsByName("cacheLookupTeam")).containsExactly(teamId);
+        SecondLevelCacheStatistics.Stats afterHit = secondLevelCacheStatistics.team();
+        assertThat(afterHit.getQueryCacheHits() - afterMiss.getQueryCacheHits()).isEqualTo(1);
+        assertThat(afterHit.getQueryCacheMisses() - afterMiss.getQueryCacheMisses()).isZero();
+    }
+}
@@ -0,0 +1,64 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.metrics.SqlStatementCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "team.members.in-chunk-size=" + TeamQueryRepositoryTest.CHUNK) //작게 해서 IN 분할 경로를 탄다
+@Transactional
+class TeamQueryRepositoryTest {
+
+    static final int CHUNK = 3;
+
+    @Autowired EntityManager em;
+    @Autowired TeamQueryRepository teamQueryRepository;
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 12; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i + "-1", 10, team));
+            em.persist(new Member("member" + i + "-2", 20, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void queryCountIsChunked() {
+        //팀 1 + 회원 ceil(팀 수 / CHUNK) + count 1 (페이지가 꽉 차서 count 생략 불가) -> 팀마다 쿼리하지 않는다
+        assertThat(statementsFor(2)).isEqualTo(1 + 1 + 1);
+        assertThat(statementsFor(10)).isEqualTo(1 + (10 + CHUNK - 1) / CHUNK + 1);
+    }
+
+    @Test
+    public void membersAreFilled() {
+        Page<TeamDto> page = teamQueryRepository.findTeams(PageRequest.of(0, 10), true);
+
+        assertThat(page.getContent()).hasSize(10);
+        for (TeamDto team : page.getContent()) { //청크 경계를 넘어도 팀마다 자기 회원만 정확히
+            String no = team.getName().substring("team".length());
+            assertThat(team.getMembers()).extracting("username")
+                    .containsExactly("member" + no + "-1", "member" + no + "-2");
+            assertThat(team.getMembers()).extracting("age").containsExactly(10, 20);
+        }
+    }
+
+    private long statementsFor(int pageSize) {
+        long before = SqlStatementCounter.current();
+        teamQueryRepository.findTeams(PageRequest.of(0, pageSize), true);
+        return SqlStatementCounter.current() - before;
+    }
+}